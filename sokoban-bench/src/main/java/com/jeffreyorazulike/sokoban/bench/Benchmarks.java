@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>
+ * Runs the benchmarks of the game with the GC profiler, so the bytes
+ * allocated per operation are reported next to the time</p>
+ *
+ * <p>
+ * Usage: {@code Benchmarks [JMH options]}, for example {@code Benchmarks
+ * Move -p level=huge}. With no options every benchmark runs</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions command = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+
+        options.parent(command).addProfiler(GCProfiler.class);
+        if (command.getIncludes().isEmpty())
+            options.include(Benchmarks.class.getPackageName() + ".*Benchmark");
+
+        new Runner(options.build()).run();
+    }
+}
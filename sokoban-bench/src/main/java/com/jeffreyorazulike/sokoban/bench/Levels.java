@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.bench;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
+import com.jeffreyorazulike.sokoban.board.MoveLog;
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * The levels the benchmarks run on, picked by name so they can be a JMH
+ * parameter, and the walks played on them</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class Levels {
+
+    private static final String SMALL
+            = "#####\n"
+            + "#@$.#\n"
+            + "#####\n";
+
+    private Levels() {
+    }
+
+    /**
+     *
+     * @param name small, default or huge
+     *
+     * @return the text of the level
+     */
+    static String level(String name) {
+        switch (name) {
+            case "small":
+                return SMALL;
+            case "default":
+                return LevelConstants.DEFAULT_LEVEL;
+            case "huge":
+                return generate(512, 512);
+            default:
+                throw new IllegalArgumentException("unknown level " + name);
+        }
+    }
+
+    /**
+     * Makes a walled room with a box on every fourth cell of every fourth row
+     * and a goal beside each box, the player in the middle
+     *
+     * @param rows    the rows of the room, walls included
+     * @param columns the columns of the room, walls included
+     *
+     * @return the text of the level
+     */
+    static String generate(int rows, int columns) {
+        StringBuilder level = new StringBuilder(rows * (columns + 1));
+
+        for (int row = 0; row < rows; ++row) {
+            for (int column = 0; column < columns; ++column)
+                if (row == 0 || column == 0 || row == rows - 1 || column == columns - 1)
+                    level.append(LevelConstants.WALL);
+                else if (row == rows / 2 && column == columns / 2)
+                    level.append(LevelConstants.PLAYER);
+                else if (row % 4 == 2 && column % 4 == 2)
+                    level.append(LevelConstants.BAGGAGE);
+                else if (row % 4 == 2 && column % 4 == 3)
+                    level.append(LevelConstants.AREA);
+                else
+                    level.append(LevelConstants.EMPTY);
+            level.append('\n');
+        }
+
+        return level.toString();
+    }
+
+    /**
+     * Walks the player at random, only moves that were not blocked are kept
+     * and the board is put back as it was
+     *
+     * @param board the board to walk on
+     * @param moves the number of moves to make
+     *
+     * @return the directions of the moves
+     */
+    static MoveLog walk(Board board, int moves) {
+        SplittableRandom random = new SplittableRandom(42);
+        MoveLog log = new MoveLog();
+        boolean[] pushed = new boolean[moves];
+
+        for (int tries = 0; log.size() < moves && tries < moves * 16; ++tries) {
+            int direction = random.nextInt(4), outcome = board.move(direction);
+
+            if (outcome != Board.BLOCKED) {
+                pushed[log.size()] = outcome == Board.PUSHED;
+                log.add(direction);
+            }
+        }
+
+        for (int i = log.size() - 1; i >= 0; --i)
+            board.undo(log.get(i), pushed[i]);
+
+        return log;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.bench;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.MoveJournal;
+import com.jeffreyorazulike.sokoban.board.MoveLog;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p>
+ * A thousand moves played the way the game plays them: a move, the move
+ * recorded in the journal and the win checked, then all of them undone and
+ * redone through the journal. Every benchmark leaves the board as it found
+ * it</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+
+    private static final int MOVES = 1000;
+
+    @Param({"small", "default", "huge"})
+    private String level;
+
+    private Board board;
+    private MoveLog walk;
+    private MoveJournal journal, history;
+
+    @Setup
+    public void setup() {
+        board = Board.parse(Levels.level(level));
+        walk = Levels.walk(board, MOVES);
+        journal = new MoveJournal();
+
+        // the walk played and undone, ready to be redone
+        history = new MoveJournal();
+        for (int i = 0, size = walk.size(); i < size; ++i) {
+            int direction = walk.get(i);
+            history.record(direction, board.move(direction) == Board.PUSHED);
+        }
+        for (int move = history.undo(); move != MoveJournal.NONE; move = history.undo())
+            board.undo(MoveJournal.direction(move), MoveJournal.isPush(move));
+    }
+
+    /**
+     * Per move: playing it, recording it, checking the win and undoing it
+     */
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public void moveAndUndo(Blackhole blackhole) {
+        for (int i = 0, size = walk.size(); i < size; ++i) {
+            int direction = walk.get(i);
+            journal.record(direction, board.move(direction) == Board.PUSHED);
+            blackhole.consume(board.isSolved());
+        }
+
+        for (int move = journal.undo(); move != MoveJournal.NONE; move = journal.undo())
+            board.undo(MoveJournal.direction(move), MoveJournal.isPush(move));
+    }
+
+    /**
+     * Per move: redoing it and undoing it again through the journal
+     */
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public void redoAndUndo(Blackhole blackhole) {
+        for (int move = history.redo(); move != MoveJournal.NONE; move = history.redo()) {
+            board.move(MoveJournal.direction(move));
+            blackhole.consume(board.getBoxesOnGoals());
+        }
+
+        for (int move = history.undo(); move != MoveJournal.NONE; move = history.undo())
+            board.undo(MoveJournal.direction(move), MoveJournal.isPush(move));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.bench;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.LevelParser;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Reading a level from its text and writing it back, what loading a level
+ * and saving one from the level builder cost</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"small", "default", "huge"})
+    private String level;
+
+    private String text;
+    private ByteBuffer bytes;
+    private Board board;
+
+    @Setup
+    public void setup() {
+        text = Levels.level(level);
+        bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        board = Board.parse(text);
+    }
+
+    @Benchmark
+    public Board parseText() {
+        return LevelParser.parse(text);
+    }
+
+    @Benchmark
+    public Board parseBytes() {
+        return LevelParser.parse(bytes.duplicate());
+    }
+
+    @Benchmark
+    public String write() {
+        return board.toString();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.bench;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.io.GameSave;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Saving a game with a thousand moves and loading it again, in memory and
+ * through a file</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveBenchmark {
+
+    @Param({"small", "default", "huge"})
+    private String level;
+
+    private GameSave save;
+    private ByteBuffer encoded;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        String text = Levels.level(level);
+
+        save = new GameSave(text, Levels.walk(Board.parse(text), 1000));
+        encoded = save.encode();
+        file = Files.createTempFile("sokoban", ".sokobansave");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        return save.encode();
+    }
+
+    @Benchmark
+    public GameSave decode() throws IOException {
+        return GameSave.decode(encoded.duplicate());
+    }
+
+    @Benchmark
+    public GameSave writeAndRead() throws IOException {
+        save.write(file);
+        return GameSave.read(file);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.bench;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
+import com.jeffreyorazulike.sokoban.io.LevelCollection;
+import com.jeffreyorazulike.sokoban.solver.Solution;
+import com.jeffreyorazulike.sokoban.solver.Solver;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>
+ * Measures how the parallel solver scales with the number of threads</p>
+ *
+ * <p>
+ * Usage: {@code SolverBenchmark [threads] [collection]}. The default level
+ * is always solved, the collection can add the levels of a file in the
+ * format read by {@link LevelCollection}. Every level is solved once by the
+ * serial A* for reference, then by the parallel search on pools of 1, 2, 4
+ * ... threads up to the given count. The speedup is against the parallel
+ * search on one thread</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class SolverBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int maximum = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        List<Board> levels = new ArrayList<>();
+        levels.add(Board.parse(LevelConstants.DEFAULT_LEVEL));
+        if (args.length > 1) {
+            LevelCollection collection = LevelCollection.open(Paths.get(args[1]));
+            for (int i = 0; i < collection.size(); ++i)
+                levels.add(collection.getBoard(i));
+        }
+
+        // let the JIT compile the searches before anything is timed
+        solve(levels.get(0), 0);
+        solve(levels.get(0), 1);
+
+        System.out.println("level,search,threads,status,pushes,nodes,millis,nodes/s,speedup");
+
+        for (int level = 0; level < levels.size(); ++level) {
+            print(level, "serial", 1, solve(levels.get(level), 0), 0);
+
+            double single = 0;
+
+            for (int threads = 1; threads <= maximum; threads <<= 1) {
+                Solution solution = solve(levels.get(level), threads);
+
+                if (threads == 1)
+                    single = solution.getElapsed() / 1e6;
+
+                print(level, "parallel", threads, solution, single);
+            }
+        }
+    }
+
+    private static void print(int level, String search, int threads, Solution solution, double single) {
+        double millis = solution.getElapsed() / 1e6;
+
+        System.out.printf("%d,%s,%d,%s,%d,%d,%.1f,%.0f,%s%n", level, search, threads, solution.getStatus(), solution.getPushCount(),
+                solution.getNodesExpanded(), millis, solution.getNodesPerSecond(), single == 0 ? "" : String.format("%.2f", single / millis));
+    }
+
+    // threads of 0 runs the serial A*, any other count the parallel search on a pool of that size
+    private static Solution solve(Board level, int threads) {
+        Solver solver = new Solver(level);
+        solver.setDeterministic(true);
+        solver.setTimeLimit(10 * 60 * 1000);
+
+        if (threads == 0)
+            return solver.solve();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            solver.setPool(pool);
+            return solver.solve();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The state of a sokoban level held in flat primitive arrays. It does not
+ * touch the JavaFX toolkit and none of the move methods allocate, so it can be
+ * played millions of times per second by automated players</p>
+ *
+ * <p>
+ * The grid is padded by a ring of walls, every neighbour of an inner cell is
+ * therefore a valid index. Cells are addressed by a single index, use
+ * {@link #index(int, int)}, {@link #row(int)} and {@link #column(int)} to
+ * convert between indexes and level coordinates</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class Board implements Serializable {
+
+    /**
+     * The directions a player can move in, in LURD order
+     */
+    public static final int LEFT = 0, UP = 1, RIGHT = 2, DOWN = 3;
+
+    /**
+     * The LURD notation of the directions, upper case letters mark pushes
+     */
+    public static final String DIRECTIONS = "lurd";
+
+    /**
+     * The outcome of a move
+     */
+    public static final int BLOCKED = 0, MOVED = 1, PUSHED = 2;
+
+    /**
+     * The flags stored for every cell of the grid
+     */
+    public static final byte FLOOR = 0, WALL = 1, GOAL = 2, BOX = 4;
+
+    // the size of the level and the width of a padded row
+    private final int rows, columns, stride;
+
+    // the flags of every cell
+    private final byte[] cells;
+
+    // one bit per cell
+    private final long[] walls, goals, boxes;
+
+    // the cells a box can never be pushed to a goal from, one bit per cell
+    private long[] dead;
+
+    // the index offset of every direction
+    private final int[] offsets;
+
+    private int player = -1;
+
+    private int boxCount, goalCount;
+
+    // the boxes standing on a goal, kept up to date by every change to the boxes
+    private int boxesOnGoals;
+
+    // the xor of the zobrist keys of every box
+    private long boxHash;
+
+    // used to find the area of the player
+    private transient int[] queue, marks;
+    private transient int flood;
+
+    /**
+     * Creates an empty board, every cell of the level starts as floor
+     *
+     * @param rows    the number of rows of the level
+     * @param columns the number of columns of the widest row of the level
+     */
+    public Board(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        stride = columns + 2;
+
+        cells = new byte[(rows + 2) * stride];
+        walls = new long[(cells.length + 63) >>> 6];
+        goals = new long[walls.length];
+        boxes = new long[walls.length];
+
+        offsets = new int[]{-1, -stride, 1, stride};
+
+        for (int cell = 0; cell < cells.length; ++cell)
+            if (cell < stride || cell >= cells.length - stride || cell % stride == 0 || cell % stride == stride - 1)
+                setWall(cell);
+    }
+
+    /**
+     * Creates a copy of another board
+     *
+     * @param board the board to copy
+     */
+    public Board(Board board) {
+        rows = board.rows;
+        columns = board.columns;
+        stride = board.stride;
+        cells = board.cells.clone();
+        walls = board.walls.clone();
+        goals = board.goals.clone();
+        boxes = board.boxes.clone();
+        offsets = board.offsets.clone();
+        player = board.player;
+        boxCount = board.boxCount;
+        goalCount = board.goalCount;
+        boxesOnGoals = board.boxesOnGoals;
+        boxHash = board.boxHash;
+        dead = board.dead;
+    }
+
+    /**
+     *
+     * @param level the level, one row per line in the XSB format
+     *
+     * @return the board described by the level
+     *
+     * @see LevelParser
+     */
+    public static Board parse(CharSequence level) {
+        return LevelParser.parse(level);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     *
+     * @return the number of cells of the padded grid
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    public int index(int row, int column) {
+        return (row + 1) * stride + column + 1;
+    }
+
+    public int row(int index) {
+        return index / stride - 1;
+    }
+
+    public int column(int index) {
+        return index % stride - 1;
+    }
+
+    /**
+     *
+     * @param direction one of {@link #LEFT}, {@link #UP}, {@link #RIGHT} or
+     *                  {@link #DOWN}
+     *
+     * @return the value to add to an index to step in the direction
+     */
+    public int offset(int direction) {
+        return offsets[direction];
+    }
+
+    public static int opposite(int direction) {
+        return direction ^ 2;
+    }
+
+    public byte cell(int index) {
+        return cells[index];
+    }
+
+    public boolean isWall(int index) {
+        return (cells[index] & WALL) != 0;
+    }
+
+    public boolean isGoal(int index) {
+        return (cells[index] & GOAL) != 0;
+    }
+
+    public boolean hasBox(int index) {
+        return (cells[index] & BOX) != 0;
+    }
+
+    /**
+     *
+     * @param index the cell to check
+     *
+     * @return true if neither a wall nor a box is on the cell
+     */
+    public boolean isFree(int index) {
+        return (cells[index] & (WALL | BOX)) == 0;
+    }
+
+    /**
+     *
+     * @param index the cell to check
+     *
+     * @return true if a box on the cell can never reach a goal, see
+     *         {@link #markDeadSquares()}
+     */
+    public boolean isDead(int index) {
+        return dead != null && (dead[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Finds the dead squares of the board, call it once the walls and goals
+     * are in place
+     */
+    public void markDeadSquares() {
+        dead = DeadSquares.compute(this);
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    public void setPlayer(int index) {
+        player = index;
+    }
+
+    public int getBoxCount() {
+        return boxCount;
+    }
+
+    public int getGoalCount() {
+        return goalCount;
+    }
+
+    /**
+     * Puts a wall on a cell, a box, goal or player on the cell is taken off
+     * the board and out of its counts
+     *
+     * @param index the cell
+     */
+    public void setWall(int index) {
+        removeBox(index);
+
+        if (isGoal(index)) {
+            goals[index >>> 6] &= ~(1L << index);
+            --goalCount;
+        }
+
+        if (index == player)
+            player = -1;
+
+        cells[index] = WALL;
+        walls[index >>> 6] |= 1L << index;
+    }
+
+    public void addGoal(int index) {
+        if (isGoal(index))
+            return;
+
+        cells[index] |= GOAL;
+        goals[index >>> 6] |= 1L << index;
+        ++goalCount;
+
+        if (hasBox(index))
+            ++boxesOnGoals;
+    }
+
+    public void addBox(int index) {
+        if (hasBox(index))
+            return;
+
+        cells[index] |= BOX;
+        boxes[index >>> 6] |= 1L << index;
+        boxHash ^= Zobrist.box(index);
+        ++boxCount;
+
+        if (isGoal(index))
+            ++boxesOnGoals;
+    }
+
+    public void removeBox(int index) {
+        if (!hasBox(index))
+            return;
+
+        cells[index] &= ~BOX;
+        boxes[index >>> 6] &= ~(1L << index);
+        boxHash ^= Zobrist.box(index);
+        --boxCount;
+
+        if (isGoal(index))
+            --boxesOnGoals;
+    }
+
+    /**
+     * Moves a box without checking the rules of the game
+     *
+     * @param from the cell holding the box
+     * @param to   the cell the box should be placed on
+     */
+    public void moveBox(int from, int to) {
+        cells[from] &= ~BOX;
+        boxes[from >>> 6] &= ~(1L << from);
+        cells[to] |= BOX;
+        boxes[to >>> 6] |= 1L << to;
+        boxHash ^= Zobrist.box(from) ^ Zobrist.box(to);
+
+        // GOAL is the second bit, the difference is -1, 0 or 1 once shifted
+        boxesOnGoals += ((cells[to] & GOAL) - (cells[from] & GOAL)) >> 1;
+    }
+
+    /**
+     *
+     * @param direction the direction of the move
+     *
+     * @return {@link #BLOCKED} if the player could not move, {@link #PUSHED}
+     *         if a box was pushed, otherwise {@link #MOVED}
+     */
+    public int move(int direction) {
+        int offset = offsets[direction], next = player + offset;
+        byte cell = cells[next];
+
+        // exit the method if the player is going to collide with a wall
+        if ((cell & WALL) != 0)
+            return BLOCKED;
+
+        if ((cell & BOX) != 0) {
+            // exit the method if the box is colliding with a wall or another box
+            if ((cells[next + offset] & (WALL | BOX)) != 0)
+                return BLOCKED;
+
+            moveBox(next, next + offset);
+            player = next;
+            return PUSHED;
+        }
+
+        player = next;
+        return MOVED;
+    }
+
+    /**
+     * Takes back a move made with {@link #move(int)}
+     *
+     * @param direction the direction of the move to take back
+     * @param pushed    true if the move pushed a box
+     */
+    public void undo(int direction, boolean pushed) {
+        int offset = offsets[direction];
+
+        if (pushed)
+            moveBox(player + offset, player);
+
+        player -= offset;
+    }
+
+    /**
+     * Copies the cells holding boxes in ascending order
+     *
+     * @param into the array to fill, it must hold at least
+     *             {@link #getBoxCount()} values
+     *
+     * @return the number of boxes copied
+     */
+    public int boxPositions(int[] into) {
+        int count = 0;
+
+        for (int word = 0; word < boxes.length; ++word)
+            for (long bits = boxes[word]; bits != 0; bits &= bits - 1)
+                into[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+
+        return count;
+    }
+
+    /**
+     * Copies the cells holding goals in ascending order
+     *
+     * @param into the array to fill, it must hold at least
+     *             {@link #getGoalCount()} values
+     *
+     * @return the number of goals copied
+     */
+    public int goalPositions(int[] into) {
+        int count = 0;
+
+        for (int word = 0; word < goals.length; ++word)
+            for (long bits = goals[word]; bits != 0; bits &= bits - 1)
+                into[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+
+        return count;
+    }
+
+    /**
+     * Replaces every box of the board
+     *
+     * @param positions the cells that should hold a box
+     * @param count     the number of values of positions to use
+     */
+    public void setBoxes(int[] positions, int count) {
+        for (int word = 0; word < boxes.length; ++word)
+            for (long bits = boxes[word]; bits != 0; bits &= bits - 1)
+                cells[(word << 6) + Long.numberOfTrailingZeros(bits)] &= ~BOX;
+
+        Arrays.fill(boxes, 0);
+        boxCount = 0;
+        boxesOnGoals = 0;
+        boxHash = 0;
+
+        for (int i = 0; i < count; ++i)
+            addBox(positions[i]);
+    }
+
+    /**
+     *
+     * @return the xor of the zobrist keys of every box, kept up to date by
+     *         every change to the boxes
+     */
+    public long getBoxHash() {
+        return boxHash;
+    }
+
+    /**
+     *
+     * @return the 64 bit hash of the position, positions that only differ by
+     *         where the player stands in the same area share it
+     */
+    public long hash() {
+        return boxHash ^ Zobrist.player(normalizedPlayer());
+    }
+
+    /**
+     *
+     * @return the smallest cell the player can walk to
+     */
+    public int normalizedPlayer() {
+        if (queue == null) {
+            queue = new int[cells.length];
+            marks = new int[cells.length];
+        }
+
+        if (++flood == 0) {
+            Arrays.fill(marks, 0);
+            flood = 1;
+        }
+
+        int head = 0, tail = 0, normalized = player;
+
+        queue[tail++] = player;
+        marks[player] = flood;
+
+        while (head < tail) {
+            int cell = queue[head++];
+
+            for (int offset : offsets) {
+                int next = cell + offset;
+
+                if (marks[next] == flood || (cells[next] & (WALL | BOX)) != 0)
+                    continue;
+
+                marks[next] = flood;
+                queue[tail++] = next;
+
+                if (next < normalized)
+                    normalized = next;
+            }
+        }
+
+        return normalized;
+    }
+
+    /**
+     *
+     * @return the number of boxes standing on a goal
+     */
+    public int getBoxesOnGoals() {
+        return boxesOnGoals;
+    }
+
+    /**
+     *
+     * @return true if every box is on a goal
+     */
+    public boolean isSolved() {
+        return boxesOnGoals == boxCount;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder level = new StringBuilder(rows * (columns + 1));
+
+        for (int row = 0; row < rows; ++row) {
+            for (int column = 0; column < columns; ++column)
+                level.append(character(index(row, column)));
+            level.append('\n');
+        }
+
+        return level.toString();
+    }
+
+    /**
+     *
+     * @param index the cell
+     *
+     * @return the character of the cell in the XSB format
+     */
+    public char character(int index) {
+        if (isWall(index))
+            return '#';
+        if (hasBox(index))
+            return isGoal(index) ? '*' : '$';
+        if (index == player)
+            return isGoal(index) ? '+' : '@';
+
+        return isGoal(index) ? '.' : ' ';
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+/**
+ * <p>
+ * Finds the simple deadlocks of a level: the floor cells a box can never be
+ * pushed from to any goal, whatever the other boxes do</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class DeadSquares {
+
+    private DeadSquares() {
+    }
+
+    /**
+     * Pulls a box away from every goal, a box can reach a goal from every
+     * cell it can be pulled to
+     *
+     * @param board a board with its walls and goals in place
+     *
+     * @return a bitset of the dead cells of the board
+     */
+    public static long[] compute(Board board) {
+        int size = board.size();
+        boolean[] alive = new boolean[size];
+        int[] queue = new int[size];
+        int head = 0, tail = 0;
+
+        for (int cell = 0; cell < size; ++cell)
+            if (board.isGoal(cell) && !board.isWall(cell)) {
+                alive[cell] = true;
+                queue[tail++] = cell;
+            }
+
+        while (head < tail) {
+            int cell = queue[head++];
+
+            for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction) {
+                int offset = board.offset(direction), from = cell + offset;
+
+                // the player pulls the box from the cell while stepping further in the direction
+                if (!alive[from] && !board.isWall(from) && !board.isWall(from + offset)) {
+                    alive[from] = true;
+                    queue[tail++] = from;
+                }
+            }
+        }
+
+        long[] dead = new long[(size + 63) >>> 6];
+
+        for (int cell = 0; cell < size; ++cell)
+            if (!alive[cell] && !board.isWall(cell))
+                dead[cell >>> 6] |= 1L << cell;
+
+        return dead;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+/**
+ * <p>
+ * The constants of a level that do not need the JavaFX toolkit</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public abstract class LevelConstants {
+
+    /**
+     * How the game's world is arranged
+     */
+    public static final String DEFAULT_LEVEL
+            = "    ######\n"
+            + "    ##   #\n"
+            + "    ##$  #\n"
+            + "  ####  $##\n"
+            + "  ##  $ $ #\n"
+            + "#### # ## #   ######\n"
+            + "##   # ## #####  ..#\n"
+            + "## $  $          ..#\n"
+            + "###### ### #@##  ..#\n"
+            + "    ##     #########\n"
+            + "    ########\n";
+
+    /**
+     * Represents a wall
+     */
+    public static final char WALL = '#';
+
+    /**
+     * Represents a baggage
+     */
+    public static final char BAGGAGE = '$';
+
+    /**
+     * Represents the player
+     */
+    public static final char PLAYER = '@';
+
+    /**
+     * Represents a final area
+     */
+    public static final char AREA = '.';
+
+    /*
+     * Represents an empty area
+     */
+    public static final char EMPTY = ' ';
+}
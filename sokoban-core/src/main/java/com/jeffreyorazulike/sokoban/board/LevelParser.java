@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+import com.jeffreyorazulike.sokoban.metrics.LevelCodecEvent;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Reads a level in the XSB format into a {@link Board}. Every character is
+ * looked at once and kept as the flags of its cell until the size of the
+ * level is known</p>
+ *
+ * <p>
+ * Walls are {@code #}, floor is a space, {@code -} or {@code _} and a tab
+ * is floor up to the next column that is a multiple of 8, goals are
+ * {@code .}, boxes are {@code $} or {@code *} on a goal and the player is
+ * {@code @} or {@code +} on a goal. Rows end with a new line or {@code |}</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class LevelParser {
+
+    // the flags of a cell beyond those of the board
+    private static final byte PLAYER = 8, END_OF_ROW = 16;
+
+    private static final int TAB = 8;
+
+    private static final Metrics.Timer DECODE = Metrics.timer("level.decode");
+
+    // the flags of every character read, rows end with END_OF_ROW
+    private byte[] cells = new byte[256];
+    private int length;
+
+    private int rows, columns, width;
+
+    // a parser lives for one parse, so the decode is timed from its creation
+    private final LevelCodecEvent event = new LevelCodecEvent();
+    private final long start = System.nanoTime();
+
+    private LevelParser() {
+        event.begin();
+    }
+
+    /**
+     *
+     * @param level the level
+     *
+     * @return the board of the level
+     *
+     * @throws IllegalArgumentException if a character is not part of the
+     *                                  format
+     */
+    public static Board parse(CharSequence level) {
+        LevelParser parser = new LevelParser();
+
+        for (int i = 0; i < level.length(); ++i)
+            parser.accept(level.charAt(i));
+
+        return parser.build();
+    }
+
+    /**
+     *
+     * @param level the level in ASCII, read from its position to its limit
+     *
+     * @return the board of the level
+     *
+     * @throws IllegalArgumentException if a character is not part of the
+     *                                  format
+     */
+    public static Board parse(ByteBuffer level) {
+        LevelParser parser = new LevelParser();
+
+        while (level.hasRemaining())
+            parser.accept((char) (level.get() & 0xFF));
+
+        return parser.build();
+    }
+
+    /**
+     *
+     * @param level the level, read to its end
+     *
+     * @return the board of the level
+     *
+     * @throws IOException              if the level can not be read
+     * @throws IllegalArgumentException if a character is not part of the
+     *                                  format
+     */
+    public static Board parse(Reader level) throws IOException {
+        LevelParser parser = new LevelParser();
+        char[] buffer = new char[4096];
+
+        for (int read; (read = level.read(buffer)) != -1;)
+            for (int i = 0; i < read; ++i)
+                parser.accept(buffer[i]);
+
+        return parser.build();
+    }
+
+    private void accept(char character) {
+        byte cell;
+
+        switch (character) {
+            case '\r':
+                return;
+            case '\n':
+            case '|':
+                ++rows;
+                width = 0;
+                cell = END_OF_ROW;
+                break;
+            case '\t':
+                // the columns line up as an editor shows them, LevelCollection also takes a tab for a space
+                do
+                    accept(' ');
+                while (width % TAB != 0);
+                return;
+            case ' ':
+            case '-':
+            case '_':
+                cell = Board.FLOOR;
+                break;
+            case '#':
+                cell = Board.WALL;
+                break;
+            case '.':
+                cell = Board.GOAL;
+                break;
+            case '$':
+                cell = Board.BOX;
+                break;
+            case '*':
+                cell = Board.BOX | Board.GOAL;
+                break;
+            case '@':
+                cell = PLAYER;
+                break;
+            case '+':
+                cell = PLAYER | Board.GOAL;
+                break;
+            default:
+                throw new IllegalArgumentException("'" + character + "' at row " + (rows + 1) + ", column " + (width + 1) + " is not part of a level");
+        }
+
+        if (cell != END_OF_ROW && ++width > columns)
+            columns = width;
+
+        if (length == cells.length)
+            cells = Arrays.copyOf(cells, length << 1);
+
+        cells[length++] = cell;
+    }
+
+    private Board build() {
+        Board board = new Board(width > 0 ? rows + 1 : rows, columns);
+
+        for (int i = 0, row = 0, column = 0; i < length; ++i) {
+            byte cell = cells[i];
+
+            if (cell == END_OF_ROW) {
+                ++row;
+                column = 0;
+                continue;
+            }
+
+            int index = board.index(row, column++);
+
+            if ((cell & Board.WALL) != 0)
+                board.setWall(index);
+            if ((cell & Board.GOAL) != 0)
+                board.addGoal(index);
+            if ((cell & Board.BOX) != 0)
+                board.addBox(index);
+            if ((cell & PLAYER) != 0)
+                board.setPlayer(index);
+        }
+
+        board.markDeadSquares();
+
+        DECODE.stop(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "decode";
+            event.characters = length;
+            event.cells = board.size();
+            event.commit();
+        }
+
+        return board;
+    }
+}
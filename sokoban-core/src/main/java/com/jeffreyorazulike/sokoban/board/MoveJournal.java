@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The undo and redo history of a game. Every move takes three bits, the
+ * direction and whether it pushed a box, so 21 moves share a long</p>
+ *
+ * <p>
+ * The moves before the cursor can be undone and the ones after it redone,
+ * recording a new move forgets the moves that could be redone</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class MoveJournal {
+
+    private static final int BITS = 3, PER_WORD = Long.SIZE / BITS, PUSHED = 4;
+
+    /**
+     * Returned by {@link #undo()} and {@link #redo()} when there is no move
+     */
+    public static final int NONE = -1;
+
+    private long[] words = new long[4];
+
+    // the moves made and the moves recorded, the ones between can be redone
+    private int cursor, size;
+
+    /**
+     *
+     * @param direction the direction of the move, see {@link Board#LEFT}
+     * @param pushed    true if the move pushed a box
+     */
+    public void record(int direction, boolean pushed) {
+        if (cursor == words.length * PER_WORD)
+            words = Arrays.copyOf(words, words.length << 1);
+
+        int word = cursor / PER_WORD, shift = cursor % PER_WORD * BITS;
+
+        words[word] = words[word] & ~(7L << shift) | (long) ((direction & 3) | (pushed ? PUSHED : 0)) << shift;
+        size = ++cursor;
+    }
+
+    /**
+     * Steps back over the last move made
+     *
+     * @return the move, see {@link #direction(int)} and {@link #isPush(int)},
+     *         or {@link #NONE}
+     */
+    public int undo() {
+        return cursor == 0 ? NONE : get(--cursor);
+    }
+
+    /**
+     * Steps forward over the last move undone
+     *
+     * @return the move, see {@link #direction(int)} and {@link #isPush(int)},
+     *         or {@link #NONE}
+     */
+    public int redo() {
+        return cursor == size ? NONE : get(cursor++);
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    /**
+     *
+     * @return the number of moves made and not undone
+     */
+    public int size() {
+        return cursor;
+    }
+
+    /**
+     *
+     * @param index the index of a move made, from 0
+     *
+     * @return the move
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("move " + index + " of " + size);
+
+        return (int) (words[index / PER_WORD] >>> index % PER_WORD * BITS) & 7;
+    }
+
+    public static int direction(int move) {
+        return move & 3;
+    }
+
+    public static boolean isPush(int move) {
+        return (move & PUSHED) != 0;
+    }
+
+    /**
+     *
+     * @return the directions of the moves made and not undone
+     */
+    public MoveLog toMoveLog() {
+        MoveLog log = new MoveLog();
+
+        for (int i = 0; i < cursor; ++i)
+            log.add(direction(get(i)));
+
+        return log;
+    }
+
+    /**
+     *
+     * @return the bytes held by the journal
+     */
+    public long memory() {
+        return words.length * 8L;
+    }
+}
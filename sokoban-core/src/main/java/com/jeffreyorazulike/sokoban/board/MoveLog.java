@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The directions of the moves made on a board, two bits per move. Whether a
+ * move pushed a box is left out, replaying the moves on the board finds it
+ * again</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class MoveLog {
+
+    private static final int BITS = 2, PER_WORD = Long.SIZE / BITS;
+
+    private long[] words = new long[4];
+    private int size;
+
+    /**
+     *
+     * @param direction the direction of a move, see {@link Board#LEFT}
+     */
+    public void add(int direction) {
+        if (size == words.length * PER_WORD)
+            words = Arrays.copyOf(words, words.length << 1);
+
+        words[size / PER_WORD] |= (long) (direction & 3) << size % PER_WORD * BITS;
+        ++size;
+    }
+
+    /**
+     *
+     * @param index the index of a move, from 0
+     *
+     * @return the direction of the move
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("move " + index + " of " + size);
+
+        return (int) (words[index / PER_WORD] >>> index % PER_WORD * BITS) & 3;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forgets the moves from an index on
+     *
+     * @param size the number of moves to keep
+     */
+    public void truncate(int size) {
+        if (size < 0 || size > this.size)
+            throw new IndexOutOfBoundsException("size " + size + " of " + this.size);
+
+        // the bits past the end are cleared so add can or into them
+        for (int index = size; index < this.size && index % PER_WORD != 0; ++index)
+            words[index / PER_WORD] &= ~(3L << index % PER_WORD * BITS);
+        for (int word = (size + PER_WORD - 1) / PER_WORD; word < (this.size + PER_WORD - 1) / PER_WORD; ++word)
+            words[word] = 0;
+
+        this.size = size;
+    }
+
+    public void clear() {
+        truncate(0);
+    }
+
+    /**
+     *
+     * @return the number of bytes {@link #write(ByteBuffer)} puts
+     */
+    public int bytes() {
+        return (size + 3) / 4;
+    }
+
+    /**
+     * Puts the moves four to a byte, the first move in the lowest bits
+     *
+     * @param buffer the buffer to put the moves in
+     */
+    public void write(ByteBuffer buffer) {
+        for (int i = 0, bytes = bytes(); i < bytes; ++i)
+            buffer.put((byte) (words[i / 8] >>> i % 8 * 8));
+    }
+
+    /**
+     * Gets moves put by {@link #write(ByteBuffer)}
+     *
+     * @param buffer the buffer to get the moves from
+     * @param size   the number of moves
+     *
+     * @return the moves
+     */
+    public static MoveLog read(ByteBuffer buffer, int size) {
+        MoveLog log = new MoveLog();
+        log.words = new long[Math.max(4, (size + PER_WORD - 1) / PER_WORD)];
+
+        for (int i = 0, bytes = (size + 3) / 4; i < bytes; ++i)
+            log.words[i / 8] |= (buffer.get() & 0xFFL) << i % 8 * 8;
+
+        // a last byte with stray bits past the end must not leak into later moves
+        if (size % PER_WORD != 0)
+            log.words[size / PER_WORD] &= (1L << size % PER_WORD * BITS) - 1;
+
+        log.size = size;
+
+        return log;
+    }
+
+    /**
+     *
+     * @return the moves in LURD notation without the pushes marked
+     */
+    @Override
+    public String toString() {
+        StringBuilder moves = new StringBuilder(size);
+
+        for (int i = 0; i < size; ++i)
+            moves.append(Board.DIRECTIONS.charAt(get(i)));
+
+        return moves.toString();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+/**
+ * <p>
+ * The random keys xored together to give a position its 64 bit hash. The
+ * keys are derived from the cell index with a fixed seed, so the hash of a
+ * position is the same in every run and can key stored hints and
+ * solutions</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_50B0_BA4EL;
+
+    private Zobrist() {
+    }
+
+    /**
+     *
+     * @param cell the cell holding a box
+     *
+     * @return the key of a box on the cell
+     */
+    public static long box(int cell) {
+        return mix(SEED + 2L * cell);
+    }
+
+    /**
+     *
+     * @param cell the normalized cell of the player
+     *
+     * @return the key of the player area represented by the cell
+     */
+    public static long player(int cell) {
+        return mix(SEED + 2L * cell + 1);
+    }
+
+    // the splitmix64 finalizer
+    private static long mix(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.io;
+
+import com.jeffreyorazulike.sokoban.board.MoveLog;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import com.jeffreyorazulike.sokoban.metrics.SaveEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * A game saved as the text of its level and the moves made on it</p>
+ *
+ * <p>
+ * The file holds, big endian: the magic number, the version as a short, the
+ * length of the level in bytes and its UTF-8 text, the number of moves and
+ * the moves four to a byte as written by {@link MoveLog#write(ByteBuffer)},
+ * and last the CRC32 of everything before it</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class GameSave {
+
+    /**
+     * The first bytes of a save, "SOKB"
+     */
+    public static final int MAGIC = 0x534F4B42;
+
+    /**
+     * The version of the format written
+     */
+    public static final short VERSION = 1;
+
+    private static final Metrics.Timer SAVE = Metrics.timer("game.save"), LOAD = Metrics.timer("game.load");
+
+    private static final Metrics.Counter SAVED = Metrics.counter("game.save.bytes"), LOADED = Metrics.counter("game.load.bytes");
+
+    private final String level;
+    private final MoveLog moves;
+
+    /**
+     *
+     * @param level the level as it was loaded
+     * @param moves the moves made on it
+     */
+    public GameSave(String level, MoveLog moves) {
+        this.level = level;
+        this.moves = moves;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public MoveLog getMoves() {
+        return moves;
+    }
+
+    /**
+     *
+     * @return the save in the format of the file
+     */
+    public ByteBuffer encode() {
+        byte[] text = level.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 4 + Short.BYTES + text.length + moves.bytes());
+
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(text.length).put(text).putInt(moves.size());
+        moves.write(buffer);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) checksum.getValue());
+
+        return buffer.flip();
+    }
+
+    /**
+     *
+     * @param buffer a save in the format of the file
+     *
+     * @return the save
+     *
+     * @throws IOException if the buffer is not a save this version can read
+     */
+    public static GameSave decode(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+
+        if (buffer.remaining() < Integer.BYTES * 4 + Short.BYTES || buffer.getInt() != MAGIC)
+            throw new IOException("not a saved game");
+
+        short version = buffer.getShort();
+        if (version != VERSION)
+            throw new IOException("saved game version " + version + " is not supported");
+
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() - Integer.BYTES * 2)
+            throw new IOException("saved game is cut short");
+
+        byte[] text = new byte[length];
+        buffer.get(text);
+
+        int size = buffer.getInt();
+        if (size < 0 || (size + 3L) / 4 > buffer.remaining() - Integer.BYTES)
+            throw new IOException("saved game is cut short");
+
+        MoveLog moves = MoveLog.read(buffer, size);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(start).limit(buffer.position()));
+
+        if ((int) checksum.getValue() != buffer.getInt())
+            throw new IOException("saved game is corrupt");
+
+        return new GameSave(new String(text, StandardCharsets.UTF_8), moves);
+    }
+
+    /**
+     * Writes the save next to the file, forces it to the disk and renames
+     * it over the file, neither a reader nor a crash sees half a save
+     *
+     * @param file the file to save to
+     *
+     * @throws IOException if the save could not be written
+     */
+    public void write(Path file) throws IOException {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer buffer = encode();
+        int bytes = buffer.remaining();
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+
+            // the rename can reach the disk before the data otherwise
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        SAVE.stop(start);
+        SAVED.add(bytes);
+        commit(event, "save", file, bytes);
+    }
+
+    /**
+     *
+     * @param file a file written by {@link #write(Path)}
+     *
+     * @return the save
+     *
+     * @throws IOException if the file can not be read or is not a save
+     */
+    public static GameSave read(Path file) throws IOException {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("not a saved game");
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) == -1)
+                    break;
+
+            GameSave save = decode(buffer.flip());
+
+            LOAD.stop(start);
+            LOADED.add(buffer.limit());
+            commit(event, "load", file, buffer.limit());
+
+            return save;
+        }
+    }
+
+    private static void commit(SaveEvent event, String operation, Path file, long bytes) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.path = file.toString();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
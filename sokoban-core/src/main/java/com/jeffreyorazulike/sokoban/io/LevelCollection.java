@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.io;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.LevelParser;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A file of levels in the XSB or SOK text format. The file is mapped into
+ * memory and only the byte offsets of every level and its title are kept,
+ * a level is read out of the file when it is asked for</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class LevelCollection {
+
+    private static final String TITLE = "Title:";
+
+    private final MappedByteBuffer file;
+
+    // the start and end of the board and of the title of every level, -1 for no title
+    private int[] offsets;
+    private int size;
+
+    private LevelCollection(MappedByteBuffer file) {
+        this.file = file;
+        offsets = new int[64];
+        index();
+    }
+
+    /**
+     * Maps a collection into memory and finds its levels
+     *
+     * @param path the file of the collection
+     *
+     * @return the levels of the file
+     *
+     * @throws IOException if the file can not be read or is 2GB or larger
+     */
+    public static LevelCollection open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException(path + " is too large to map");
+
+            // the mapping stays valid after the channel is closed
+            return new LevelCollection(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     *
+     * @return the number of levels in the collection
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @param level the index of a level, from 0
+     *
+     * @return the rows of the level separated by new lines
+     */
+    public String getLevel(int level) {
+        int start = offset(level, 0), end = offset(level, 1);
+        StringBuilder text = new StringBuilder(end - start);
+
+        for (int i = start; i < end; ++i) {
+            char character = (char) (file.get(i) & 0xFF);
+
+            if (character != '\r')
+                text.append(character);
+        }
+
+        return text.toString();
+    }
+
+    /**
+     *
+     * @param level the index of a level, from 0
+     *
+     * @return the board of the level
+     */
+    public Board getBoard(int level) {
+        int start = offset(level, 0);
+        return LevelParser.parse(file.slice(start, offset(level, 1) - start));
+    }
+
+    /**
+     *
+     * @param level the index of a level, from 0
+     *
+     * @return the title given to the level in the file or its number
+     */
+    public String getTitle(int level) {
+        int start = offset(level, 2), end = offset(level, 3);
+
+        if (start == -1)
+            return "Level " + (level + 1);
+
+        byte[] title = new byte[end - start];
+        file.get(start, title);
+
+        return new String(title, StandardCharsets.UTF_8).strip();
+    }
+
+    private int offset(int level, int which) {
+        if (level < 0 || level >= size)
+            throw new IndexOutOfBoundsException("level " + level + " of " + size);
+
+        return offsets[level * 4 + which];
+    }
+
+    /**
+     * Walks the file once. A run of board lines is a level, its title is
+     * the "Title:" line after it or else the last line of text before it
+     */
+    private void index() {
+        int limit = file.limit(), start = -1, end = -1, textStart = -1, textEnd = -1;
+        boolean titled = false;
+
+        for (int line = 0; line < limit;) {
+            // the line is looked at in the same pass that finds its end
+            int next = line, trimmed = line, text = -1;
+            boolean board = true, wall = false;
+
+            for (byte character; next < limit && (character = file.get(next)) != '\n'; ++next)
+                switch (character) {
+                    case '#':
+                        wall = true;
+                    // falls through, a wall is a board character too
+                    case '$': case '*': case '.': case '@': case '+': case '-': case '_':
+                        trimmed = next + 1;
+                        if (text == -1)
+                            text = next;
+                        break;
+                    case ' ': case '\t': case '\r':
+                        break;
+                    case ';':
+                        board = false;
+                        break;
+                    default:
+                        board = false;
+                        trimmed = next + 1;
+                        if (text == -1)
+                            text = next;
+                }
+
+            if (board && wall) {
+                if (start == -1) {
+                    start = line;
+                    titled = false;
+                }
+                end = trimmed;
+            } else {
+                if (start != -1) {
+                    add(start, end, textStart, textEnd);
+                    start = -1;
+                    textStart = -1;
+                }
+
+                if (text != -1 && startsWith(text, trimmed, TITLE)) {
+                    if (size > 0 && !titled) {
+                        // a title after a level belongs to it
+                        offsets[(size - 1) * 4 + 2] = text + TITLE.length();
+                        offsets[(size - 1) * 4 + 3] = trimmed;
+                        titled = true;
+                    } else {
+                        textStart = text + TITLE.length();
+                        textEnd = trimmed;
+                    }
+                } else if (text != -1 && !isField(text, trimmed)) {
+                    textStart = text;
+                    textEnd = trimmed;
+                }
+            }
+
+            line = next + 1;
+        }
+
+        if (start != -1)
+            add(start, end, textStart, textEnd);
+    }
+
+    private void add(int start, int end, int titleStart, int titleEnd) {
+        if (size * 4 == offsets.length)
+            offsets = Arrays.copyOf(offsets, offsets.length << 1);
+
+        offsets[size * 4] = start;
+        offsets[size * 4 + 1] = end;
+        offsets[size * 4 + 2] = titleStart;
+        offsets[size * 4 + 3] = titleEnd;
+        ++size;
+    }
+
+    private boolean startsWith(int start, int end, String prefix) {
+        if (end - start < prefix.length())
+            return false;
+
+        for (int i = 0; i < prefix.length(); ++i)
+            if (Character.toLowerCase(file.get(start + i)) != Character.toLowerCase(prefix.charAt(i)))
+                return false;
+
+        return true;
+    }
+
+    // lines such as "Author: ..." or "Comment: ..." are not titles
+    private boolean isField(int start, int end) {
+        for (int i = start; i < end; ++i) {
+            byte character = file.get(i);
+
+            if (character == ':')
+                return i > start;
+
+            if (!Character.isLetter(character))
+                return false;
+        }
+
+        return false;
+    }
+}
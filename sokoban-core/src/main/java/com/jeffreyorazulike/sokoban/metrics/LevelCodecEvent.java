@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>
+ * A level turned from text into a board or from a board into text</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+@Name("com.jeffreyorazulike.sokoban.LevelCodec")
+@Label("Level Codec")
+@Category({"Sokoban", "Game"})
+@Description("A level turned from text into a board or from a board into text")
+public final class LevelCodecEvent extends Event {
+
+    @Label("Operation")
+    @Description("decode or encode")
+    public String operation;
+
+    @Label("Characters")
+    public int characters;
+
+    @Label("Cells")
+    public int cells;
+}
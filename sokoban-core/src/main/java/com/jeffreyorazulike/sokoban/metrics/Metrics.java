@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * The counters of the game and the solver, kept in memory so they can be
+ * read without a profiler. The same measures are recorded as flight
+ * recorder events, see the events of this package. Recording costs a few
+ * uncontended adds, so the metrics are always on</p>
+ *
+ * <p>
+ * Names are dotted, e.g. {@code game.move}, and
+ * {@link #dump(Appendable)} writes them in order, one per line</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class Metrics {
+
+    private static final Map<String, Metric> METRICS = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return get(name, Counter.class, key -> new Counter());
+    }
+
+    public static Timer timer(String name) {
+        return get(name, Timer.class, key -> new Timer());
+    }
+
+    public static Gauge gauge(String name) {
+        return get(name, Gauge.class, key -> new Gauge());
+    }
+
+    private static <T extends Metric> T get(String name, Class<T> type, Function<String, Metric> create) {
+        Metric metric = METRICS.computeIfAbsent(name, create);
+
+        if (!type.isInstance(metric))
+            throw new IllegalArgumentException(name + " is not a " + type.getSimpleName().toLowerCase());
+
+        return type.cast(metric);
+    }
+
+    /**
+     * Writes every metric as its name followed by its values
+     *
+     * @param out where the metrics are written
+     *
+     * @throws IOException if the metrics could not be written
+     */
+    public static void dump(Appendable out) throws IOException {
+        for (Map.Entry<String, Metric> entry : METRICS.entrySet())
+            out.append(entry.getKey()).append(' ').append(entry.getValue().toString()).append(System.lineSeparator());
+    }
+
+    /**
+     * Dumps the metrics to the standard error when the JVM exits if the
+     * {@code sokoban.metrics} system property is true
+     */
+    public static void dumpOnExit() {
+        if (!Boolean.getBoolean("sokoban.metrics"))
+            return;
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                dump(System.err);
+            } catch (IOException exception) {
+                // the standard error does not throw
+            }
+        }, "Sokoban metrics"));
+    }
+
+    /**
+     * Sets every metric back to zero
+     */
+    public static void reset() {
+        METRICS.values().forEach(Metric::reset);
+    }
+
+    public abstract static class Metric {
+
+        abstract void reset();
+    }
+
+    /**
+     * <p>
+     * A count of things, e.g. bytes saved</p>
+     */
+    public static final class Counter extends Metric {
+
+        private final LongAdder count = new LongAdder();
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+
+        @Override
+        void reset() {
+            count.reset();
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + get();
+        }
+    }
+
+    /**
+     * <p>
+     * The number of times something took place and how long it took</p>
+     */
+    public static final class Timer extends Metric {
+
+        private final LongAdder count = new LongAdder(), total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         *
+         * @param start the {@link System#nanoTime()} it began
+         *
+         * @return the nanoseconds it took
+         */
+        public long stop(long start) {
+            long elapsed = System.nanoTime() - start;
+
+            record(elapsed);
+
+            return elapsed;
+        }
+
+        /**
+         *
+         * @param nanos the nanoseconds it took
+         */
+        public void record(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         *
+         * @return the nanoseconds of all the times together
+         */
+        public long getTotal() {
+            return total.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long times = getCount();
+            return times == 0 ? 0 : (double) getTotal() / times;
+        }
+
+        @Override
+        void reset() {
+            count.reset();
+            total.reset();
+            max.reset();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d total=%.3fms mean=%.3fms max=%.3fms", getCount(), getTotal() / 1e6, getMean() / 1e6, getMax() / 1e6);
+        }
+    }
+
+    /**
+     * <p>
+     * The last value of something, e.g. the size of the open list</p>
+     */
+    public static final class Gauge extends Metric {
+
+        private volatile double value;
+
+        public void set(double value) {
+            this.value = value;
+        }
+
+        public double get() {
+            return value;
+        }
+
+        @Override
+        void reset() {
+            value = 0;
+        }
+
+        @Override
+        public String toString() {
+            return "value=" + value;
+        }
+    }
+}
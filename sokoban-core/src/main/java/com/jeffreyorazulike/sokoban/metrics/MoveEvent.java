@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>
+ * A move of the player and the repaint of the cells it changed</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+@Name("com.jeffreyorazulike.sokoban.Move")
+@Label("Move")
+@Category({"Sokoban", "Game"})
+@Description("A move of the player and the repaint of the cells it changed")
+public final class MoveEvent extends Event {
+
+    @Label("Direction")
+    public char direction;
+
+    @Label("Pushed")
+    public boolean pushed;
+
+    @Label("Blocked")
+    public boolean blocked;
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>
+ * The nodes of a board built and laid out again, as when a level is
+ * loaded</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+@Name("com.jeffreyorazulike.sokoban.Relayout")
+@Label("Relayout")
+@Category({"Sokoban", "UI"})
+@Description("The nodes of a board built and laid out again, as when a level is loaded")
+public final class RelayoutEvent extends Event {
+
+    @Label("Screen")
+    public String screen;
+
+    @Label("Renderer")
+    @Description("actors, canvas or viewport")
+    public String renderer;
+
+    @Label("Cells")
+    public int cells;
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+
+/**
+ * <p>
+ * How fast a search is going, sent every few hundred expansions at most
+ * ten times a second</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+@Name("com.jeffreyorazulike.sokoban.SolverProgress")
+@Label("Solver Progress")
+@Category({"Sokoban", "Solver"})
+@Description("How fast a search is going, sent every few hundred expansions at most ten times a second")
+public final class SolverProgressEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Nodes")
+    @Description("The positions expanded so far")
+    public long nodes;
+
+    @Label("Nodes per Second")
+    @Description("Since the last event of the search")
+    public double nodesPerSecond;
+
+    @Label("Table Hit Rate")
+    @Percentage
+    public double tableHitRate;
+
+    @Label("Open List")
+    @Description("The positions waiting to be expanded")
+    public long openSize;
+
+    @Label("Memory")
+    @DataAmount
+    public long memory;
+}
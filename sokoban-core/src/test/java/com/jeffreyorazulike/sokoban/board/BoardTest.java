@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Moves, pushes and takes back moves on a board</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class BoardTest {
+
+    private static final String LEVEL
+            = "#######\n"
+            + "#     #\n"
+            + "# $@$.#\n"
+            + "#  *  #\n"
+            + "#######\n";
+
+    @Test
+    void movesPushesAndIsBlocked() {
+        Board board = Board.parse(LEVEL);
+        int start = board.getPlayer();
+
+        assertEquals(Board.MOVED, board.move(Board.UP));
+        assertEquals(start + board.offset(Board.UP), board.getPlayer());
+        assertEquals(Board.BLOCKED, board.move(Board.UP));
+        assertEquals(Board.MOVED, board.move(Board.DOWN));
+
+        assertEquals(Board.PUSHED, board.move(Board.RIGHT));
+        assertTrue(board.hasBox(start + 2));
+        assertFalse(board.hasBox(start + 1));
+        assertEquals(start + 1, board.getPlayer());
+
+        // the box is against the wall now
+        assertEquals(Board.BLOCKED, board.move(Board.RIGHT));
+        assertEquals(start + 1, board.getPlayer());
+    }
+
+    @Test
+    void countsTheBoxesOnGoals() {
+        Board board = Board.parse(LEVEL);
+
+        assertEquals(3, board.getBoxCount());
+        assertEquals(2, board.getGoalCount());
+        assertEquals(1, board.getBoxesOnGoals());
+
+        board.move(Board.RIGHT);
+        assertEquals(2, board.getBoxesOnGoals());
+
+        board.undo(Board.RIGHT, true);
+        assertEquals(1, board.getBoxesOnGoals());
+    }
+
+    @Test
+    void undoRestoresThePositionAndItsHash() {
+        Board board = Board.parse(LEVEL);
+        String start = board.toString();
+        long hash = board.hash(), boxHash = board.getBoxHash();
+
+        board.move(Board.LEFT);
+        assertNotEquals(boxHash, board.getBoxHash());
+
+        board.undo(Board.LEFT, true);
+        assertEquals(start, board.toString());
+        assertEquals(hash, board.hash());
+        assertEquals(boxHash, board.getBoxHash());
+    }
+
+    @Test
+    void hashesTheAreaOfThePlayerNotItsCell() {
+        Board board = Board.parse(LEVEL);
+        long hash = board.hash();
+
+        board.move(Board.UP);
+        board.move(Board.LEFT);
+        assertEquals(hash, board.hash());
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        Board board = Board.parse(LEVEL), copy = new Board(board);
+
+        copy.move(Board.RIGHT);
+
+        assertEquals(LEVEL, board.toString());
+        assertNotEquals(board.toString(), copy.toString());
+        assertEquals(board.getBoxCount(), copy.getBoxCount());
+    }
+
+    @Test
+    void setsTheBoxesOfAnotherPosition() {
+        Board board = Board.parse(LEVEL), other = Board.parse(LEVEL);
+        other.move(Board.RIGHT);
+
+        int[] boxes = new int[other.getBoxCount()];
+        other.boxPositions(boxes);
+        board.setBoxes(boxes, boxes.length);
+
+        assertEquals(other.getBoxHash(), board.getBoxHash());
+        assertEquals(other.getBoxesOnGoals(), board.getBoxesOnGoals());
+    }
+
+    @Test
+    void aWallTakesTheBoxAndGoalOffItsCell() {
+        Board board = Board.parse(LEVEL), empty = Board.parse(LEVEL.replace('*', ' '));
+        int cell = board.index(3, 3);
+
+        board.setWall(cell);
+
+        assertTrue(board.isWall(cell));
+        assertFalse(board.hasBox(cell));
+        assertFalse(board.isGoal(cell));
+        assertEquals(2, board.getBoxCount());
+        assertEquals(1, board.getGoalCount());
+        assertEquals(0, board.getBoxesOnGoals());
+        assertEquals(empty.getBoxHash(), board.getBoxHash());
+
+        board.setWall(board.getPlayer());
+        assertEquals(-1, board.getPlayer());
+    }
+}
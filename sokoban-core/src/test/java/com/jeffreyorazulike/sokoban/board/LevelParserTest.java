@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Reads levels and writes them back</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class LevelParserTest {
+
+    private static final String LEVEL
+            = "#######\n"
+            + "#.@ # #\n"
+            + "#$* $ #\n"
+            + "#   $ #\n"
+            + "# ..  #\n"
+            + "#  *  #\n"
+            + "#######\n";
+
+    @Test
+    void encodesWhatItParsed() {
+        assertEquals(LEVEL, Board.parse(LEVEL).toString());
+    }
+
+    @Test
+    void roundTripsTheDefaultLevel() {
+        Board board = Board.parse(LevelConstants.DEFAULT_LEVEL), again = Board.parse(board.toString());
+
+        assertEquals(board.toString(), again.toString());
+        assertEquals(board.getPlayer(), again.getPlayer());
+        assertEquals(board.getBoxCount(), again.getBoxCount());
+        assertEquals(board.getGoalCount(), again.getGoalCount());
+        assertEquals(board.hash(), again.hash());
+    }
+
+    @Test
+    void readsTheCells() {
+        Board board = Board.parse(LEVEL);
+
+        assertEquals(7, board.getRows());
+        assertEquals(7, board.getColumns());
+        assertEquals(board.index(1, 2), board.getPlayer());
+        assertEquals(5, board.getBoxCount());
+        assertEquals(5, board.getGoalCount());
+        assertEquals(2, board.getBoxesOnGoals());
+        assertTrue(board.isWall(board.index(1, 4)));
+    }
+
+    @Test
+    void readsTheOtherFloorsAndRowSeparators() {
+        assertEquals(LEVEL, Board.parse(LEVEL.replace('\n', '|').replace(' ', '-')).toString());
+        assertEquals(LEVEL, Board.parse(LEVEL.replace("\n", "\r\n").replace(' ', '_')).toString());
+    }
+
+    @Test
+    void readsTabsUpToTheNextTabStop() {
+        Board board = Board.parse("\t#####\n\t#@$.#\n\t#####\n");
+
+        assertEquals(13, board.getColumns());
+        assertEquals(board.index(1, 9), board.getPlayer());
+    }
+
+    @Test
+    void rejectsUnknownCharacters() {
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("#####\n#@$x#\n#####\n"));
+    }
+}
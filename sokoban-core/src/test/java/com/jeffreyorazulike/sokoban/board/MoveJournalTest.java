@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Undoes and redoes moves on a board</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class MoveJournalTest {
+
+    @Test
+    void undoesAndRedoesEveryMove() {
+        Board board = Board.parse(LevelConstants.DEFAULT_LEVEL);
+        MoveJournal journal = new MoveJournal();
+
+        // a walk of more moves than fit in a word of the journal
+        Random random = new Random(42);
+        List<String> positions = new ArrayList<>();
+        positions.add(board.toString());
+        int pushes = 0;
+
+        while (positions.size() <= 200) {
+            int direction = random.nextInt(4), moved = board.move(direction);
+
+            if (moved == Board.BLOCKED)
+                continue;
+
+            journal.record(direction, moved == Board.PUSHED);
+            positions.add(board.toString());
+            if (moved == Board.PUSHED)
+                ++pushes;
+        }
+
+        assertTrue(pushes > 0);
+
+        for (int i = positions.size() - 1; i > 0; --i) {
+            int move = journal.undo();
+            board.undo(MoveJournal.direction(move), MoveJournal.isPush(move));
+            assertEquals(positions.get(i - 1), board.toString());
+        }
+
+        assertFalse(journal.canUndo());
+        assertEquals(MoveJournal.NONE, journal.undo());
+
+        for (int i = 1; i < positions.size(); ++i) {
+            int move = journal.redo();
+            assertEquals(MoveJournal.isPush(move) ? Board.PUSHED : Board.MOVED, board.move(MoveJournal.direction(move)));
+            assertEquals(positions.get(i), board.toString());
+        }
+
+        assertFalse(journal.canRedo());
+        assertEquals(MoveJournal.NONE, journal.redo());
+    }
+
+    @Test
+    void recordingForgetsTheMovesUndone() {
+        MoveJournal journal = new MoveJournal();
+        journal.record(Board.LEFT, false);
+        journal.record(Board.UP, true);
+        journal.undo();
+
+        assertTrue(journal.canRedo());
+        journal.record(Board.DOWN, false);
+
+        assertFalse(journal.canRedo());
+        assertEquals(2, journal.size());
+        assertEquals(Board.DOWN, MoveJournal.direction(journal.get(1)));
+        assertFalse(MoveJournal.isPush(journal.get(1)));
+    }
+
+    @Test
+    void keepsOnlyTheMovesMadeInTheLog() {
+        MoveJournal journal = new MoveJournal();
+        for (int i = 0; i < 50; ++i)
+            journal.record(i % 4, i % 3 == 0);
+        journal.undo();
+
+        MoveLog log = journal.toMoveLog();
+
+        assertEquals(49, log.size());
+        for (int i = 0; i < log.size(); ++i)
+            assertEquals(i % 4, log.get(i));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.io;
+
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
+import com.jeffreyorazulike.sokoban.board.MoveLog;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * <p>
+ * Writes saved games and reads them back</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class GameSaveTest {
+
+    @TempDir
+    Path folder;
+
+    private static GameSave save(int moves) {
+        MoveLog log = new MoveLog();
+        for (int i = 0; i < moves; ++i)
+            log.add(i * 7 % 4);
+
+        return new GameSave(LevelConstants.DEFAULT_LEVEL, log);
+    }
+
+    private static void assertSameSave(GameSave expected, GameSave actual) {
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getMoves().size(), actual.getMoves().size());
+
+        for (int i = 0; i < expected.getMoves().size(); ++i)
+            assertEquals(expected.getMoves().get(i), actual.getMoves().get(i), "move " + i);
+    }
+
+    @Test
+    void decodesWhatItEncoded() throws IOException {
+        // move counts that fill a byte and ones that leave it part used
+        for (int moves : new int[]{0, 1, 4, 5, 1001}) {
+            GameSave save = save(moves);
+            assertSameSave(save, GameSave.decode(save.encode()));
+        }
+    }
+
+    @Test
+    void readsWhatItWrote() throws IOException {
+        Path file = folder.resolve("game.sokoban");
+        GameSave first = save(10), second = save(300);
+
+        first.write(file);
+        assertSameSave(first, GameSave.read(file));
+
+        // a second save replaces the first and leaves nothing beside it
+        second.write(file);
+        assertSameSave(second, GameSave.read(file));
+        assertEquals(1, Files.list(folder).count());
+    }
+
+    @Test
+    void rejectsAChangedByte() {
+        ByteBuffer buffer = save(40).encode();
+
+        for (int i = 0; i < buffer.limit(); ++i) {
+            ByteBuffer changed = ByteBuffer.allocate(buffer.limit()).put(buffer.duplicate()).flip();
+            changed.put(i, (byte) (changed.get(i) ^ 0x10));
+
+            assertThrows(IOException.class, () -> GameSave.decode(changed), "byte " + i);
+        }
+    }
+
+    @Test
+    void rejectsACutSave() {
+        ByteBuffer buffer = save(40).encode();
+
+        for (int length = 0; length < buffer.limit(); length += 7) {
+            ByteBuffer cut = buffer.duplicate().limit(length);
+            assertThrows(IOException.class, () -> GameSave.decode(cut), "length " + length);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.io;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * <p>
+ * Finds the levels and titles of a file</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class LevelCollectionTest {
+
+    private static final String FILE
+            = "; a comment\r\n"
+            + "First\r\n"
+            + "\r\n"
+            + "#####\r\n"
+            + "#@$.#\r\n"
+            + "#####\r\n"
+            + "\r\n"
+            + "#######\n"
+            + "#@ $ .#\n"
+            + "#######\n"
+            + "Title: Second\n"
+            + "Author: Someone\n"
+            + "\n"
+            + "\t#####\n"
+            + "\t#.$@#\n"
+            + "\t#####\n";
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void findsEveryLevelAndTitle() throws IOException {
+        Path file = folder.resolve("levels.xsb");
+        Files.writeString(file, FILE);
+
+        LevelCollection collection = LevelCollection.open(file);
+
+        assertEquals(3, collection.size());
+        assertEquals("First", collection.getTitle(0));
+        assertEquals("Second", collection.getTitle(1));
+        assertEquals("Level 3", collection.getTitle(2));
+        assertEquals("#####\n#@$.#\n#####", collection.getLevel(0));
+    }
+
+    @Test
+    void parsesEveryLevelItFinds() throws IOException {
+        Path file = folder.resolve("levels.xsb");
+        Files.writeString(file, FILE);
+
+        LevelCollection collection = LevelCollection.open(file);
+
+        for (int i = 0; i < collection.size(); ++i) {
+            assertEquals(1, collection.getBoard(i).getBoxCount());
+            assertEquals(collection.getBoard(i).toString(), Board.parse(collection.getLevel(i)).toString());
+        }
+
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.getLevel(3));
+    }
+}
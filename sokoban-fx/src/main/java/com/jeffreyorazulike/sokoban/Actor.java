@@ -17,6 +17,7 @@
 package com.jeffreyorazulike.sokoban;
 
 import static com.jeffreyorazulike.sokoban.SokobanConstants.*;
+import com.jeffreyorazulike.sokoban.board.Board;
 import com.jeffreyorazulike.sokoban.model.GameModel;
 import java.io.Serializable;
 import java.util.function.BiFunction;
@@ -44,6 +45,9 @@ public class Actor extends Group implements Serializable {
     // the actor's image
     private transient Image image;
 
+    // shows the image, kept when the image changes
+    private transient ImageView imageView;
+
     private Actor(int row, int column, Image image, boolean movable) {
         setRow(row);
         setColumn(column);
@@ -76,15 +80,18 @@ public class Actor extends Group implements Serializable {
     }
 
     public final void setImage(Image image) {
-        this.image = image;
-        ImageView imageView = new ImageView(image);
+        // inflating the actors of a level sets the image they were made with
+        if (image == this.image)
+            return;
 
-        getChildren().remove(0, getChildren().size());
-        getChildren().add(imageView);
+        this.image = image;
 
-        setRow(row);
-        setColumn(column);
+        if (imageView == null) {
+            imageView = new ImageView();
+            getChildren().setAll(imageView);
+        }
 
+        imageView.setImage(image);
         imageView.setX((SPACE - image.getWidth()) / 2);
         imageView.setY((SPACE - image.getHeight()) / 2);
     }
@@ -107,82 +114,31 @@ public class Actor extends Group implements Serializable {
         if (!isMovable() || keyCode == null)
             return;
 
-        int[] move = Actor.moveType(keyCode);
-
-        if (move != null) {
-            GameModel.Undo undo = new GameModel.Undo();
-
-            if (move(model, undo, this, move))
-                model.getUndo().push(undo);
-        }
-    }
-
-    public void move(GameModel model, int[] move) {
-        if (!isMovable())
-            return;
-
-        int movedRow = getRow() + move[0], movedColumn = getColumn() + move[1];
-
-        Actor temp = model.getActors()[movedRow][movedColumn];
-        model.getActors()[movedRow][movedColumn] = this;
-        model.getActors()[getRow()][getColumn()] = temp;
-        setRow(movedRow);
-        setColumn(movedColumn);
-    }
-
-    private boolean move(GameModel model, GameModel.Undo undo, Actor actor, int[] move) {
-        int thisRow = actor.getRow(), thisColumn = actor.getColumn();
-        int movedRow = thisRow + move[0], movedColumn = thisColumn + move[1];
-
-        // exit the method if the actor is going to collide with a wall
-        if (model.getActors()[movedRow][movedColumn] instanceof Wall)
-            return false;
-
-        if (actor instanceof Baggage) {
-            // exit the method if a baggage is colliding with another baggage
-            if (model.getActors()[movedRow][movedColumn] instanceof Baggage)
-                return false;
-
-            actor.move(model, move);
-
-            undo.baggage = new int[]{actor.getRow(), actor.getColumn()};
-
-            return true;
-        }
-
-        if (actor instanceof Player) {
-            if (model.getActors()[movedRow][movedColumn] instanceof Baggage) // moveType the baggage that is hit by the player but exit the method if the baggage hits another
-
-                if (!move(model, undo, model.getActors()[movedRow][movedColumn], move))
-                    return false;
-
-            actor.move(model, move);
-
-            undo.player = new int[]{actor.getRow(), actor.getColumn()};
-            undo.setMove(move);
-        }
+        int direction = Actor.direction(keyCode);
 
-        return true;
+        if (direction != -1)
+            model.move(direction);
     }
 
     /**
      * @param AREA Where to check the actor collided, i.e. LEFT, RIGHT, UP, DOWN
      *
-     * @return The moveType type for the received key code
+     * @return The board direction for the received key code or -1 if the key
+     *         does not move the player
      */
-    public static int[] moveType(final KeyCode AREA) {
+    public static int direction(final KeyCode AREA) {
 
         switch (AREA) {
             case W:
-                return UP_MOVE;
+                return Board.UP;
             case S:
-                return DOWN_MOVE;
+                return Board.DOWN;
             case A:
-                return LEFT_MOVE;
+                return Board.LEFT;
             case D:
-                return RIGHT_MOVE;
+                return Board.RIGHT;
             default:
-                return null;
+                return -1;
         }
     }
 
@@ -16,6 +16,8 @@
  */
 package com.jeffreyorazulike.sokoban;
 
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+
 /**
  *
  * @author Jeffrey Orazulike <bit.ly/jeffreyorazulike>
@@ -23,6 +25,7 @@ package com.jeffreyorazulike.sokoban;
 public class Main {
 
     public static void main(String[] args) {
+        Metrics.dumpOnExit();
         javafx.application.Application.launch(LoadSokoban.class, args);
     }
 }
@@ -16,31 +16,19 @@
  */
 package com.jeffreyorazulike.sokoban;
 
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
 import com.jeffreyorazulike.sokoban.model.GameModel;
 import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 
 /**
+ * <p>
+ * The constants of the game, with the level constants of
+ * {@link LevelConstants}</p>
  *
  * @author Jeffrey Orazulike
  */
-public abstract class SokobanConstants {
-
-    /**
-     * How the game's world is arranged
-     */
-    public static final String DEFAULT_LEVEL
-            = "    ######\n"
-            + "    ##   #\n"
-            + "    ##$  #\n"
-            + "  ####  $##\n"
-            + "  ##  $ $ #\n"
-            + "#### # ## #   ######\n"
-            + "##   # ## #####  ..#\n"
-            + "## $  $          ..#\n"
-            + "###### ### #@##  ..#\n"
-            + "    ##     #########\n"
-            + "    ########\n";
+public abstract class SokobanConstants extends LevelConstants {
 
     /**
      * The name of the game
@@ -62,6 +50,12 @@ public abstract class SokobanConstants {
      */
     public static final String LEVEL_BUILDER_EXTENSION = ".sokobanlevel";
 
+    /**
+     * The name and extensions of the text files of many levels
+     */
+    public static final String LEVEL_COLLECTION = "Level Collection";
+    public static final String[] LEVEL_COLLECTION_EXTENSIONS = {"*.xsb", "*.sok", "*.txt"};
+
     /**
      * The key for moving up
      */
@@ -89,32 +83,23 @@ public abstract class SokobanConstants {
     /**
      * Represents a wall
      */
-    public static final char WALL = '#';
     public static final transient Image WALL_IMAGE = new Image(GameModel.class.getResource("/wall.png").toString());
 
     /**
      * Represents a baggage
      */
-    public static final char BAGGAGE = '$';
     public static final transient Image BAGGAGE_IMAGE = new Image(GameModel.class.getResource("/baggage.png").toString());
 
     /**
      * Represents the player
      */
-    public static final char PLAYER = '@';
     public static final transient Image PLAYER_IMAGE = new Image(GameModel.class.getResource("/sokoban.png").toString());
 
     /**
      * Represents a final area
      */
-    public static final char AREA = '.';
     public static final transient Image AREA_IMAGE = new Image(GameModel.class.getResource("/area.png").toString());
 
-    /*
-     * Represents an empty area
-     */
-    public static final char EMPTY = ' ';
-
     /**
      * The size of the wall and area
      */
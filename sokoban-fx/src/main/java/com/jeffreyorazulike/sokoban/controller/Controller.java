@@ -17,11 +17,14 @@
 package com.jeffreyorazulike.sokoban.controller;
 
 import com.jeffreyorazulike.sokoban.interfaces.SokobanUI;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import com.jeffreyorazulike.sokoban.metrics.RelayoutEvent;
 import java.io.IOException;
 import java.util.Optional;
 import java.util.function.Consumer;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.control.MenuBar;
 import javafx.stage.Stage;
 
@@ -31,6 +34,8 @@ import javafx.stage.Stage;
  */
 public abstract class Controller implements SokobanUI {
 
+    private static final Metrics.Timer RELAYOUT = Metrics.timer("ui.relayout");
+
     private Parent root;
 
     protected Stage stage;
@@ -67,4 +72,43 @@ public abstract class Controller implements SokobanUI {
 
         return controller;
     }
+
+    /**
+     * Records how long a {@link #loadToRoot()} took, up to the end of the
+     * layout pass that shows its nodes
+     *
+     * @param event    the event begun with the load
+     * @param start    the {@link System#nanoTime()} the load began
+     * @param renderer how the board is drawn
+     * @param cells    the cells of the board
+     */
+    protected void relaid(RelayoutEvent event, long start, String renderer, int cells) {
+        Scene scene = root.getScene();
+
+        Runnable done = () -> {
+            RELAYOUT.stop(start);
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.screen = getClass().getSimpleName();
+                event.renderer = renderer;
+                event.cells = cells;
+                event.commit();
+            }
+        };
+
+        if (scene == null) {
+            done.run();
+            return;
+        }
+
+        // the listener removes itself, only the next pulse belongs to the load
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                done.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,475 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.controller;
+
+import com.jeffreyorazulike.sokoban.Actor;
+import com.jeffreyorazulike.sokoban.SokobanConstants;
+import com.jeffreyorazulike.sokoban.board.Board;
+import static com.jeffreyorazulike.sokoban.SokobanConstants.*;
+import com.jeffreyorazulike.sokoban.interfaces.ActorWorker;
+import com.jeffreyorazulike.sokoban.interfaces.LevelWorker;
+import com.jeffreyorazulike.sokoban.interfaces.SokobanIO;
+import com.jeffreyorazulike.sokoban.io.LevelCollection;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import com.jeffreyorazulike.sokoban.metrics.MoveEvent;
+import com.jeffreyorazulike.sokoban.metrics.RelayoutEvent;
+import com.jeffreyorazulike.sokoban.model.GameModel;
+import com.jeffreyorazulike.sokoban.model.HintEngine;
+import com.jeffreyorazulike.sokoban.model.LevelBuilderModel;
+import com.jeffreyorazulike.sokoban.solver.Solution;
+import com.jeffreyorazulike.sokoban.view.BoardCanvas;
+import com.jeffreyorazulike.sokoban.view.MessageBox;
+import com.jeffreyorazulike.sokoban.view.TileViewport;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.control.CheckMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuBar;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+/**
+ *
+ * @author Jeffrey Orazulike
+ */
+public class GameController extends Controller implements SokobanIO, ActorWorker, LevelWorker {
+
+    private File lastKnownFile;
+
+    private static final String[] DIRECTION_NAMES = {"left", "up", "right", "down"};
+
+    // levels with more cells are always shown through the viewport
+    private static final int LARGE_LEVEL = 64 * 64;
+
+    // a move made by the game loop and the repaint of the cells it changed
+    private static final Metrics.Timer MOVE = Metrics.timer("game.move");
+
+    private Node display;
+
+    // draws the board when the canvas renderer is chosen, null otherwise
+    private BoardCanvas canvas;
+
+    // shows the part of the board around the player, null when not used
+    private TileViewport viewport;
+
+    private GameModel model;
+
+    private final HintEngine hints = new HintEngine();
+
+    // makes the moves of the keys on the frames and slides the pieces
+    private final GameLoop loop = new GameLoop(this::step, this::slide);
+
+    // the cell the player left in the last move and whether it pushed, for the slide
+    private int slideFrom;
+    private boolean slidePushed;
+
+    // marks the baggage of a hint on the actors or the canvas, null when not shown
+    private Rectangle hint;
+
+    // a hint is being looked for or shown
+    private boolean hinting;
+
+    private FileChooser fileChooser;
+
+    @FXML
+    private MenuItem undo, redo;
+
+    @FXML
+    private CheckMenuItem canvasRenderer, viewportRenderer;
+
+    @Override
+    public void initialize(Stage stage) {
+        this.stage = stage;
+        menuBar = (MenuBar) (((BorderPane) getRoot()).getTop());
+        ((BorderPane) getRoot()).setTop(null);
+
+        File saved = new File(SokobanConstants.GAME_NAME.concat(SokobanConstants.GAME_EXTENSION));
+        try {
+            model = loadGame(saved);
+        } catch (IOException ex) {
+            // saves of the versions before the binary format are not read either
+            if (saved.exists())
+                MessageBox.showDialog("The saved game could not be loaded, a new game was started");
+        }
+
+        Optional.ofNullable(model).ifPresentOrElse(m -> model = m, () -> model = (GameModel) decodeLevel(DEFAULT_LEVEL, ModelType.GAME));
+
+        fileChooser = new FileChooser();
+    }
+
+    @FXML
+    public void newGame(ActionEvent event) {
+        loop.finish();
+        hints.clear();
+        model = (GameModel) decodeLevel(model.getLevel(), ModelType.GAME);
+        ((BorderPane) getRoot()).setTop(null);
+        loadToRoot();
+    }
+
+    @FXML
+    public void open(ActionEvent event) throws IOException {
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(GAME_NAME, GAME_EXTENSION));
+        fileChooser.setTitle("Load Saved Game...");
+        File file = fileChooser.showOpenDialog(getStage());
+        if (file == null)
+            return;
+
+        // the slide being drawn belongs to the board being replaced
+        loop.finish();
+        try {
+            model = loadGame(file);
+        } catch (IOException exception) {
+            MessageBox.showDialog("The saved game could not be loaded");
+            return;
+        }
+        hints.clear();
+
+        ((BorderPane) getRoot()).setTop(null);
+        loadToRoot();
+    }
+
+    @FXML
+    public void loadLevel(ActionEvent event) throws IOException, ClassNotFoundException {
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(LEVEL_BUILDER, LEVEL_BUILDER_EXTENSION));
+        fileChooser.setTitle("Load Level...");
+        String level = (String) load(fileChooser.showOpenDialog(getStage()));
+        if (correctLevelStructure((LevelBuilderModel) decodeLevel(level, ModelType.BUILDER))) {
+            loop.finish();
+            hints.clear();
+            model = ((GameModel) decodeLevel(level, ModelType.GAME));
+        }
+
+        ((BorderPane) getRoot()).setTop(null);
+        loadToRoot();
+    }
+
+    @FXML
+    public void save(ActionEvent event) throws IOException {
+        if (lastKnownFile != null)
+            saveGame(lastKnownFile, model, Optional.of((file) -> lastKnownFile = file));
+        else
+            saveAs(event);
+    }
+
+    @FXML
+    public void saveAs(ActionEvent event) throws IOException {
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(GAME_NAME, GAME_EXTENSION));
+        fileChooser.setTitle("Save Game As...");
+        saveGame(fileChooser.showSaveDialog(getStage()), model, Optional.of((file) -> lastKnownFile = file));
+    }
+
+    @FXML
+    public void undo(ActionEvent event) {
+        loop.finish();
+        clearHint();
+        int player = model.getBoard().getPlayer();
+
+        // the warning of a dead push goes with the push, a won game keeps its label
+        if (model.undo() && display.getOnKeyPressed() != null)
+            ((BorderPane) getRoot()).setTop(null);
+
+        repaint(player);
+    }
+
+    @FXML
+    public void redo(ActionEvent event) {
+        loop.finish();
+        clearHint();
+        int player = model.getBoard().getPlayer();
+
+        // a redo that wins the game has already put up its label
+        if (model.redo() && display.getOnKeyPressed() != null)
+            ((BorderPane) getRoot()).setTop(null);
+
+        repaint(player);
+    }
+
+    @FXML
+    public void hint(ActionEvent event) {
+        // a won game has nothing to hint
+        if (display.getOnKeyPressed() == null)
+            return;
+
+        clearHint();
+        hinting = true;
+        ((BorderPane) getRoot()).setTop(createLabel("Looking for a hint…", Color.WHITE));
+        hints.request(model.getBoard(), this::showHint);
+    }
+
+    private void showHint(Solution.Status status, int push) {
+        Board board = model.getBoard();
+
+        if (status == Solution.Status.SOLVED && push != HintEngine.NONE) {
+            int row = board.row(HintEngine.box(push)), column = board.column(HintEngine.box(push));
+
+            if (viewport != null)
+                viewport.setHighlight(row, column);
+            else {
+                hint = new Rectangle(column * SPACE, row * SPACE, SPACE, SPACE);
+                hint.setFill(Color.TRANSPARENT);
+                hint.setStroke(Color.LIGHTGREEN);
+                hint.setStrokeWidth(3);
+                ((Group) display).getChildren().add(hint);
+            }
+
+            ((BorderPane) getRoot()).setTop(createLabel("Push the marked baggage " + DIRECTION_NAMES[HintEngine.direction(push)], Color.LIGHTGREEN));
+        } else if (status == Solution.Status.UNSOLVABLE)
+            ((BorderPane) getRoot()).setTop(createLabel("The level can no longer be won, undo some moves", Color.ORANGERED));
+        else if (status != Solution.Status.SOLVED)
+            ((BorderPane) getRoot()).setTop(createLabel("No hint was found in time", Color.ORANGERED));
+    }
+
+    // stops looking for a hint and takes the mark away, true if there was a hint
+    private boolean clearHint() {
+        hints.cancel();
+
+        if (hint != null)
+            ((Group) display).getChildren().remove(hint);
+        if (viewport != null)
+            viewport.setHighlight(-1, -1);
+
+        hint = null;
+        boolean cleared = hinting;
+        hinting = false;
+
+        return cleared;
+    }
+
+    @FXML
+    public void toggleRenderer(ActionEvent event) {
+        loadToRoot();
+    }
+
+    // draws the cells changed since the player stood on a cell
+    private void repaint(int player) {
+        Board board = model.getBoard();
+
+        if (canvas != null)
+            canvas.repaint(player, board.getPlayer());
+
+        if (viewport != null && player != board.getPlayer()) {
+            int step = board.getPlayer() - player;
+
+            for (int cell = player - step; cell != board.getPlayer() + 2 * step; cell += step)
+                viewport.repaint(board.row(cell), board.column(cell));
+
+            viewport.follow(board.row(board.getPlayer()), board.column(board.getPlayer()));
+        }
+    }
+
+    private void gameWon() {
+        ((BorderPane) getRoot()).setTop(createLabel("Game Won", Color.WHITE));
+        display.setOnKeyPressed(null);
+        loop.clear();
+    }
+
+    @FXML
+    public void loadCollection(ActionEvent event) throws IOException {
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(LEVEL_COLLECTION, LEVEL_COLLECTION_EXTENSIONS));
+        fileChooser.setTitle("Load Collection...");
+        File file = fileChooser.showOpenDialog(getStage());
+        if (file == null)
+            return;
+
+        LevelCollection collection = loadCollection(file);
+        if (collection.size() == 0) {
+            MessageBox.showDialog("The file has no levels");
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog("1");
+        dialog.setTitle(LEVEL_COLLECTION);
+        dialog.setHeaderText(file.getName() + " has " + collection.size() + " levels");
+        dialog.setContentText("Level number:");
+
+        dialog.showAndWait().ifPresent(number -> {
+            try {
+                int level = Integer.parseInt(number.strip()) - 1;
+                String text = collection.getLevel(level);
+
+                // the same check as a loaded level, a level without a player can not be played
+                if (!correctLevelStructure((LevelBuilderModel) decodeLevel(text, ModelType.BUILDER)))
+                    return;
+
+                GameModel chosen = (GameModel) decodeLevel(text, ModelType.GAME);
+
+                loop.finish();
+                hints.clear();
+                model = chosen;
+                getStage().setTitle(GAME_NAME + " - " + collection.getTitle(level));
+            } catch (NumberFormatException | IndexOutOfBoundsException exception) {
+                MessageBox.showDialog("Choose a level from 1 to " + collection.size());
+                return;
+            } catch (IllegalArgumentException exception) {
+                MessageBox.showDialog("Level " + number.strip() + " could not be read");
+                return;
+            }
+
+            ((BorderPane) getRoot()).setTop(null);
+            loadToRoot();
+        });
+    }
+
+    // checks if the last push left the baggage on a dead square
+    private boolean isDeadPush(int direction) {
+        Board board = model.getBoard();
+        return board.isDead(board.getPlayer() + board.offset(direction));
+    }
+
+    private Label createLabel(String text, Color color) {
+        Label label = new Label(text);
+        label.setFont(new Font(label.getFont().getName(), 25));
+        label.setTextFill(color);
+        return label;
+    }
+
+    // makes a move on a frame of the loop, the pieces are drawn where they end
+    private int step(int direction) {
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        int player = model.getBoard().getPlayer(), moved = model.move(direction);
+        if (moved != Board.BLOCKED && display.getOnKeyPressed() != null)
+            ((BorderPane) getRoot()).setTop(moved == Board.PUSHED && isDeadPush(direction) ? createLabel("That baggage can no longer reach an area", Color.ORANGERED) : null);
+
+        repaint(player);
+        slideFrom = player;
+        slidePushed = moved == Board.PUSHED;
+
+        MOVE.stop(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.direction = Board.DIRECTIONS.charAt(direction);
+            event.pushed = moved == Board.PUSHED;
+            event.blocked = moved == Board.BLOCKED;
+            event.commit();
+        }
+
+        return moved;
+    }
+
+    // draws the last move part of the way, the viewport only shows where the pieces end
+    private void slide(double progress) {
+        Board board = model.getBoard();
+        int to = board.getPlayer(), step = to - slideFrom;
+
+        if (canvas != null)
+            canvas.slide(slideFrom, to, slidePushed, progress);
+        else if (viewport == null) {
+            Actor[][] actors = model.getActors();
+            double x = (board.column(slideFrom) - board.column(to)) * SPACE * (1 - progress);
+            double y = (board.row(slideFrom) - board.row(to)) * SPACE * (1 - progress);
+
+            actors[board.row(to)][board.column(to)].setTranslateX(x);
+            actors[board.row(to)][board.column(to)].setTranslateY(y);
+
+            if (slidePushed) {
+                actors[board.row(to + step)][board.column(to + step)].setTranslateX(x);
+                actors[board.row(to + step)][board.column(to + step)].setTranslateY(y);
+            }
+        }
+    }
+
+    @Override
+    public void loadToRoot() {
+        RelayoutEvent relayout = new RelayoutEvent();
+        relayout.begin();
+        long start = System.nanoTime();
+
+        loop.finish();
+        if (display != null && clearHint())
+            ((BorderPane) getRoot()).setTop(null);
+
+        undo.disableProperty().bind(model.undoableProperty().not());
+        redo.disableProperty().bind(model.redoableProperty().not());
+
+        Board board = model.getBoard();
+        canvas = null;
+        viewport = null;
+
+        // the canvas and the viewport keep the node count flat and the actors are never created
+        if (viewportRenderer.isSelected() || board.getRows() * board.getColumns() > LARGE_LEVEL) {
+            viewport = new TileViewport(TileViewport.of(board));
+            display = viewport;
+        } else if (canvasRenderer.isSelected()) {
+            canvas = new BoardCanvas(board);
+            display = new Group(canvas);
+        } else {
+            Group actors = new Group();
+            inflateActors(model.getArea(), Optional.of(actor -> actors.getChildren().add(actor)));
+            Arrays.stream(model.getActors()).forEach(row -> inflateActors(row, Optional.of(actor -> actors.getChildren().add(actor))));
+            display = actors;
+        }
+
+        display.setFocusTraversable(true);
+        display.setOnKeyPressed((KeyEvent e) -> {
+            // any key but the shortcut of the hint stops it, its mark is stale once the player moves
+            boolean shortcut = e.isControlDown() || e.isShortcutDown() || e.getCode().isModifierKey();
+            if (!shortcut && clearHint())
+                ((BorderPane) getRoot()).setTop(null);
+
+            int direction = Actor.direction(e.getCode());
+            if (direction != -1)
+                loop.press(direction);
+        });
+        display.setOnKeyReleased((KeyEvent e) -> {
+            int direction = Actor.direction(e.getCode());
+            if (direction != -1)
+                loop.release(direction);
+        });
+        // the release of a key is not seen once the focus is gone
+        display.focusedProperty().addListener((focus, was, focused) -> {
+            if (!focused)
+                loop.clear();
+        });
+
+        Label progress = new Label();
+        progress.textProperty().bind(model.progressProperty());
+
+        ((BorderPane) getRoot()).setCenter(display);
+        ((BorderPane) getRoot()).setBottom(progress);
+        display.requestFocus();
+
+        if (viewport != null)
+            viewport.follow(board.row(board.getPlayer()), board.column(board.getPlayer()));
+
+        relaid(relayout, start, viewport != null ? "viewport" : canvas != null ? "canvas" : "actors", board.getRows() * board.getColumns());
+
+        model.setOnComplete(this::gameWon);
+        if (model.isComplete())
+            gameWon();
+    }
+
+    @Override
+    public void exit() {
+        saveGame(new File(GAME_NAME.concat(GAME_EXTENSION)), model, Optional.empty());
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.controller;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntUnaryOperator;
+import javafx.animation.AnimationTimer;
+
+/**
+ * <p>
+ * Makes the moves of the game on the frames of the JavaFX pulse instead of
+ * in the key handler. A key press is queued and made on the next frame the
+ * player is not already moving, a held key moves the player once a tick
+ * whatever the auto repeat rate of the keyboard, and every move slides over
+ * one tick. The queue is short so presses made while the player moves are
+ * kept but a burst of them is dropped</p>
+ *
+ * <p>
+ * The timer only runs while there is a move queued, a key held or a slide
+ * being drawn</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class GameLoop extends AnimationTimer {
+
+    /**
+     * The nanoseconds a move takes to draw, a held key moves this often
+     */
+    static final long TICK = 120_000_000;
+
+    // the presses waiting to be made
+    private static final int CAPACITY = 2;
+
+    // from the key press, or the tick a held key repeats on, to the frame its move is fully drawn on
+    private static final Metrics.Timer LATENCY = Metrics.timer("game.input.latency");
+
+    private static final Metrics.Counter DROPPED = Metrics.counter("game.input.dropped"),
+            COALESCED = Metrics.counter("game.input.coalesced");
+
+    private final IntUnaryOperator move;
+    private final DoubleConsumer slide;
+
+    // a ring of the queued directions and the nanoTime they were pressed at
+    private final int[] directions = new int[CAPACITY];
+    private final long[] pressed = new long[CAPACITY];
+    private int head, size;
+
+    // the direction of the key held down, -1 if none
+    private int held = -1;
+
+    // the frame the slide being drawn started on, -1 if none
+    private long sliding = -1;
+
+    // the nanoTime the move being drawn was asked for
+    private long asked;
+
+    // the first frame a held key may move again, a blocked move waits a tick too
+    private long ready;
+
+    private boolean running;
+
+    /**
+     *
+     * @param move  makes a move in a direction and returns the outcome of
+     *              {@link Board#move(int)}
+     * @param slide draws the last move that was not blocked part of the way,
+     *              from 0 when it is made to 1 when it is done
+     */
+    GameLoop(IntUnaryOperator move, DoubleConsumer slide) {
+        this.move = move;
+        this.slide = slide;
+    }
+
+    /**
+     *
+     * @param direction the direction of a key pressed, the repeats of a key
+     *                  held down are let go as the loop moves it by itself
+     */
+    void press(int direction) {
+        if (direction == held) {
+            COALESCED.add(1);
+            return;
+        }
+
+        held = direction;
+
+        if (size == CAPACITY) {
+            DROPPED.add(1);
+            return;
+        }
+
+        directions[(head + size) % CAPACITY] = direction;
+        pressed[(head + size) % CAPACITY] = System.nanoTime();
+        ++size;
+
+        if (!running) {
+            running = true;
+            start();
+        }
+    }
+
+    /**
+     *
+     * @param direction the direction of a key released
+     */
+    void release(int direction) {
+        if (direction == held)
+            held = -1;
+    }
+
+    /**
+     * Forgets the queued presses and the key held, a slide being drawn
+     * goes on to its end
+     */
+    void clear() {
+        size = 0;
+        held = -1;
+    }
+
+    /**
+     * Forgets the input and draws the end of a slide being drawn at once.
+     * Used before the board is changed by anything else than the loop
+     */
+    void finish() {
+        clear();
+
+        if (sliding != -1) {
+            sliding = -1;
+            slide.accept(1);
+            LATENCY.stop(asked);
+        }
+
+        running = false;
+        stop();
+    }
+
+    @Override
+    public void handle(long now) {
+        if (sliding != -1) {
+            double progress = Math.min(1, (double) (now - sliding) / TICK);
+
+            slide.accept(progress);
+            if (progress < 1)
+                return;
+
+            sliding = -1;
+            LATENCY.stop(asked);
+        }
+
+        int direction;
+
+        if (size > 0) {
+            direction = directions[head];
+            asked = pressed[head];
+            head = (head + 1) % CAPACITY;
+            --size;
+        } else if (held != -1 && now >= ready) {
+            direction = held;
+            asked = ready;
+        } else if (held != -1)
+            return;
+        else {
+            running = false;
+            stop();
+            return;
+        }
+
+        ready = now + TICK;
+
+        if (move.applyAsInt(direction) != Board.BLOCKED) {
+            sliding = now;
+            slide.accept(0);
+        } else
+            LATENCY.stop(asked);
+    }
+}
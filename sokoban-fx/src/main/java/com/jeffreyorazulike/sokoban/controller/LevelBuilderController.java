@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.controller;
+
+import static com.jeffreyorazulike.sokoban.SokobanConstants.*;
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.generator.GeneratedLevel;
+import com.jeffreyorazulike.sokoban.generator.LevelGenerator;
+import com.jeffreyorazulike.sokoban.interfaces.ActorWorker;
+import com.jeffreyorazulike.sokoban.interfaces.LevelWorker;
+import com.jeffreyorazulike.sokoban.interfaces.SokobanIO;
+import com.jeffreyorazulike.sokoban.metrics.RelayoutEvent;
+import com.jeffreyorazulike.sokoban.model.LevelBuilderModel;
+import com.jeffreyorazulike.sokoban.model.SolvabilityCheck;
+import com.jeffreyorazulike.sokoban.view.MessageBox;
+import com.jeffreyorazulike.sokoban.view.TileViewport;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuBar;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+/**
+ *
+ * @author Jeffrey Orazulike
+ */
+public class LevelBuilderController extends Controller implements SokobanIO, ActorWorker, LevelWorker {
+
+    // the size the max button gives, the level itself can be any size
+    private final int MAX_HEIGHT = 1000;
+    private final int MAX_WIDTH = 1000;
+
+    private Image currentImage = WALL_IMAGE;
+
+    private final int INITIAL_LENGTH = 5;
+
+    private LevelBuilderModel model;
+
+    private TileViewport viewport;
+
+    // the cells dragged over waiting for the next frame, drag events are
+    // coalesced so a frame edits each cell at most once
+    private boolean[] erasing;
+    private int[] erased;
+    private int erasedCount;
+    private final AnimationTimer painter = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            eraseDragged();
+        }
+    };
+
+    private File lastKnownFile;
+
+    // the check of the level saved last, null before the first save
+    private SolvabilityCheck check;
+
+    // an edit made during a check starts it again once the editing pauses
+    private final PauseTransition recheck = new PauseTransition(Duration.millis(300));
+
+    @FXML
+    private FlowPane actorImagesPane;
+
+    @FXML
+    private TextField rowTextField;
+
+    @FXML
+    private TextField columnTextField;
+
+    @FXML
+    private FlowPane checkPane;
+
+    @FXML
+    private ProgressBar checkProgress;
+
+    @FXML
+    private Label checkLabel;
+
+    @FXML
+    private Button cancelCheck;
+
+    @Override
+    public void initialize(Stage stage) {
+        this.stage = stage;
+        menuBar = (MenuBar) (((BorderPane) getRoot()).getTop());
+        ((BorderPane) getRoot()).setTop(null);
+
+        actorImagesPane.setMaxHeight(SPACE);
+        addToImagesPane(AREA_IMAGE);
+        addToImagesPane(BAGGAGE_IMAGE);
+        addToImagesPane(PLAYER_IMAGE);
+        addToImagesPane(WALL_IMAGE);
+
+        try {
+            model = (LevelBuilderModel) decodeLevel((String) load(new File(GAME_NAME.concat(LEVEL_BUILDER_EXTENSION))), ModelType.BUILDER);
+        } catch (IOException | ClassNotFoundException e) {
+        }
+
+        Optional.ofNullable(model).ifPresentOrElse(m -> model = m, () -> model = new LevelBuilderModel(INITIAL_LENGTH, INITIAL_LENGTH));
+
+        rowTextField.setText(String.valueOf(model.getRows()));
+        columnTextField.setText(String.valueOf(model.getColumns()));
+
+        recheck.setOnFinished(e -> check());
+
+        changeLevelStructure(null);
+    }
+
+    private void addToImagesPane(Image image) {
+        ImageView imageView = new ImageView(image);
+        imageView.setOnMouseClicked((MouseEvent e) -> currentImage = imageView.getImage());
+        actorImagesPane.getChildren().add(imageView);
+    }
+
+    @FXML
+    public void changeLevelStructure(ActionEvent actionEvent) {
+        try {
+            int row = Integer.parseInt(rowTextField.getText());
+            int column = Integer.parseInt(columnTextField.getText());
+            if (row <= 0 || column <= 0)
+                return;
+            if (model.update(row, column))
+                loadToRoot();
+        } catch (NumberFormatException e) {
+        }
+    }
+
+    @FXML
+    public void max(ActionEvent actionEvent) {
+        rowTextField.setText(String.valueOf(MAX_HEIGHT));
+        columnTextField.setText(String.valueOf(MAX_WIDTH));
+        changeLevelStructure(actionEvent);
+    }
+
+    @FXML
+    public void load(ActionEvent event) throws IOException, ClassNotFoundException {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(LEVEL_BUILDER, LEVEL_BUILDER_EXTENSION));
+        fileChooser.setTitle("Load Level...");
+        model = (LevelBuilderModel) decodeLevel((String) load(fileChooser.showOpenDialog(getStage())), ModelType.BUILDER);
+        loadToRoot();
+    }
+
+    @FXML
+    public void save(ActionEvent event) {
+        if (correctLevelStructure(model))
+            if (lastKnownFile != null)
+                save(lastKnownFile, model.toLevel(), Optional.of(this::saved));
+            else
+                saveAs(event);
+    }
+
+    @FXML
+    public void saveAs(ActionEvent event) {
+        if (correctLevelStructure(model)) {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(LEVEL_BUILDER, LEVEL_BUILDER_EXTENSION));
+            fileChooser.setTitle("Save Level As...");
+            File file = fileChooser.showSaveDialog(getStage());
+
+            // a cancelled dialog saves nothing to check
+            if (file != null)
+                save(file, model.toLevel(), Optional.of(this::saved));
+        }
+    }
+
+    // the level is only checked once it was written
+    private void saved(File file) {
+        lastKnownFile = file;
+        check();
+    }
+
+    @FXML
+    public void cancelCheck(ActionEvent event) {
+        recheck.stop();
+        if (check != null)
+            check.cancel();
+    }
+
+    @FXML
+    public void generate(ActionEvent event) {
+        int rows, columns;
+        try {
+            rows = Integer.parseInt(rowTextField.getText());
+            columns = Integer.parseInt(columnTextField.getText());
+        } catch (NumberFormatException exception) {
+            MessageBox.showDialog("Type the rows and columns of the level first");
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog("3");
+        dialog.setTitle(LEVEL_BUILDER);
+        dialog.setHeaderText("A new level of " + rows + " by " + columns + " that can be won");
+        dialog.setContentText("Baggage:");
+
+        dialog.showAndWait().ifPresent(number -> {
+            LevelGenerator generator;
+            try {
+                generator = new LevelGenerator(rows, columns, Integer.parseInt(number.strip()));
+            } catch (IllegalArgumentException exception) {
+                MessageBox.showDialog(exception instanceof NumberFormatException ? "Type a number of baggage" : exception.getMessage());
+                return;
+            }
+
+            Task<List<GeneratedLevel>> task = new Task<>() {
+                @Override
+                protected List<GeneratedLevel> call() {
+                    return generator.generate(1);
+                }
+            };
+
+            task.setOnSucceeded(e -> {
+                if (task.getValue().isEmpty()) {
+                    MessageBox.showDialog("No level could be made, try more room or less baggage");
+                    return;
+                }
+
+                model = (LevelBuilderModel) decodeLevel(task.getValue().get(0).getLevel(), ModelType.BUILDER);
+                rowTextField.setText(String.valueOf(model.getRows()));
+                columnTextField.setText(String.valueOf(model.getColumns()));
+                loadToRoot();
+            });
+
+            Thread thread = new Thread(task, "Sokoban level generator");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    // checks in the background that the level can be won, the save does not wait for it
+    private void check() {
+        if (check != null)
+            check.cancel();
+
+        checkPane.setVisible(true);
+        checkPane.setManaged(true);
+
+        if (!model.isWellBuilt()) {
+            check = null;
+            checkProgress.progressProperty().unbind();
+            checkProgress.setProgress(0);
+            checkLabel.textProperty().unbind();
+            checkLabel.setText("The level is not built well");
+            cancelCheck.disableProperty().unbind();
+            cancelCheck.setDisable(true);
+            return;
+        }
+
+        SolvabilityCheck started = check = new SolvabilityCheck(Board.parse(model.toLevel()));
+
+        checkProgress.progressProperty().bind(started.progressProperty());
+        checkLabel.textProperty().bind(started.messageProperty());
+        cancelCheck.disableProperty().bind(started.runningProperty().not());
+
+        started.setOnCancelled(e -> {
+            // a check replaced by a newer one leaves the pane to it
+            if (check == started) {
+                checkLabel.textProperty().unbind();
+                checkLabel.setText("The check was cancelled");
+            }
+        });
+        started.setOnFailed(e -> {
+            if (check == started) {
+                checkLabel.textProperty().unbind();
+                checkLabel.setText("The check failed: " + started.getException().getMessage());
+            }
+        });
+
+        Thread thread = new Thread(started, "Sokoban level check");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // an edit makes a running check stale
+    private void edited() {
+        if (check != null && check.isRunning() || recheck.getStatus() == Animation.Status.RUNNING) {
+            if (check != null)
+                check.cancel();
+            recheck.playFromStart();
+        }
+    }
+
+    @Override
+    public void loadToRoot() {
+        RelayoutEvent relayout = new RelayoutEvent();
+        relayout.begin();
+        long start = System.nanoTime();
+
+        // only the cells in sight are drawn, whatever the size of the level
+        viewport = new TileViewport(model);
+
+        viewport.setOnMouseClicked(e -> {
+            int row = viewport.rowAt(e.getY()), column = viewport.columnAt(e.getX());
+
+            // the release that ends a drag is not a click
+            if (e.isStillSincePress() && isCell(row, column))
+                replace(row, column, characterOf(currentImage));
+        });
+        viewport.setOnMouseDragged(e -> {
+            int row = viewport.rowAt(e.getY()), column = viewport.columnAt(e.getX());
+            int cell = row * model.getColumns() + column;
+
+            if (isCell(row, column) && !erasing[cell]) {
+                erasing[cell] = true;
+
+                if (erasedCount == erased.length)
+                    erased = Arrays.copyOf(erased, erasedCount << 1);
+                erased[erasedCount++] = cell;
+
+                painter.start();
+            }
+        });
+
+        erasing = new boolean[model.getRows() * model.getColumns()];
+        erased = new int[64];
+        erasedCount = 0;
+
+        ((BorderPane) getRoot()).setCenter(viewport);
+        relaid(relayout, start, "viewport", model.getRows() * model.getColumns());
+        edited();
+    }
+
+    // the level character placed by a picture of the images pane
+    private static char characterOf(Image image) {
+        if (image == AREA_IMAGE)
+            return AREA;
+        else if (image == BAGGAGE_IMAGE)
+            return BAGGAGE;
+        else if (image == PLAYER_IMAGE)
+            return PLAYER;
+        else
+            return WALL;
+    }
+
+    private boolean isCell(int row, int column) {
+        return row >= 0 && row < model.getRows() && column >= 0 && column < model.getColumns();
+    }
+
+    // changes one cell and draws it, the rest of the level is left alone
+    private void replace(int row, int column, char character) {
+        model.setTile(row, column, character);
+        viewport.repaint(row, column);
+        edited();
+    }
+
+    // erases the cells dragged over since the last frame
+    private void eraseDragged() {
+        for (int i = 0; i < erasedCount; ++i) {
+            int row = erased[i] / model.getColumns(), column = erased[i] % model.getColumns();
+
+            erasing[erased[i]] = false;
+            if (model.getTile(row, column) != EMPTY)
+                replace(row, column, EMPTY);
+        }
+
+        erasedCount = 0;
+        painter.stop();
+    }
+
+    @Override
+    public void exit() {
+        save(new File(GAME_NAME.concat(LEVEL_BUILDER_EXTENSION)), model.toLevel(), Optional.empty());
+    }
+
+}
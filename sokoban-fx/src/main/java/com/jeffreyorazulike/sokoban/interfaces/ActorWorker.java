@@ -21,12 +21,11 @@ import static com.jeffreyorazulike.sokoban.SokobanConstants.AREA_IMAGE;
 import static com.jeffreyorazulike.sokoban.SokobanConstants.BAGGAGE_IMAGE;
 import static com.jeffreyorazulike.sokoban.SokobanConstants.PLAYER_IMAGE;
 import static com.jeffreyorazulike.sokoban.SokobanConstants.WALL_IMAGE;
+import com.jeffreyorazulike.sokoban.model.LevelBuilderModel;
 import com.jeffreyorazulike.sokoban.view.MessageBox;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  *
@@ -34,34 +33,8 @@ import java.util.stream.Collectors;
  */
 public interface ActorWorker {
 
-    private static boolean checkLevel(Actor[][] actors) {
-        // remove all null actors from the array
-        List<List<Actor>> nonNullActors = Arrays.stream(actors).map(actorsRow -> Arrays.stream(actorsRow).filter(actor -> !(actor instanceof Actor.Empty)).collect(Collectors.toList())).collect(Collectors.toList());
-
-        int player = 0, baggage = 0, area = 0;
-        for (int row = 0; row < nonNullActors.size(); ++row) {
-            List<Actor> actorsRow = nonNullActors.get(row);
-            for (int column = 0; column < actorsRow.size(); ++column) {
-                Actor actor = actorsRow.get(column);
-
-                if ((column == 0 || column == actorsRow.size() - 1) && !(actor instanceof Actor.Wall))
-                    return false;
-                else if (actor instanceof Actor.Player)
-                    ++player;
-                else if (actor instanceof Actor.Baggage)
-                    ++baggage;
-                else if (actor instanceof Actor.Area)
-                    ++area;
-            }
-
-            System.err.println();
-        }
-
-        return !(baggage != area || baggage == 0 || player != 1);
-    }
-
-    default boolean correctLevelStructure(Actor[][] actors) {
-        if (checkLevel(actors))
+    default boolean correctLevelStructure(LevelBuilderModel model) {
+        if (model.isWellBuilt())
             return true;
         else
             MessageBox.showDialog("The level is not built well");
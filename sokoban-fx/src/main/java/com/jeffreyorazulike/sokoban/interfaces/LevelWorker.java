@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.interfaces;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.model.GameModel;
+import com.jeffreyorazulike.sokoban.model.LevelBuilderModel;
+
+/**
+ *
+ * @author Jeffrey Orazulike
+ */
+public interface LevelWorker {
+
+    public enum ModelType {
+        GAME, BUILDER
+    }
+
+    /**
+     *
+     * @param LEVEL     A string representing how the level should look like
+     * @param modelType the type of model to be returned
+     *
+     * @return A sokoban model
+     */
+    default Model decodeLevel(final String LEVEL, ModelType modelType) {
+        if (modelType == ModelType.GAME)
+            return new GameModel(Board.parse(LEVEL), LEVEL);
+
+        Board board = Board.parse(LEVEL);
+        LevelBuilderModel model = new LevelBuilderModel(board.getRows(), board.getColumns());
+
+        for (int row = 0; row < board.getRows(); ++row)
+            for (int column = 0; column < board.getColumns(); ++column)
+                model.setTile(row, column, board.character(board.index(row, column)));
+
+        return model;
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.interfaces;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.io.GameSave;
+import com.jeffreyorazulike.sokoban.io.LevelCollection;
+import com.jeffreyorazulike.sokoban.model.GameModel;
+import com.jeffreyorazulike.sokoban.view.MessageBox;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author Jeffrey Orazulike
+ */
+public interface SokobanIO {
+
+    default void save(File file, Object toSave, Optional<Consumer<File>> callback) {
+        try (ObjectOutputStream output = new ObjectOutputStream(new FileOutputStream(file))) {
+            output.writeObject(toSave);
+            callback.ifPresent(action -> action.accept(file));
+        } catch (IOException iOException) {
+            //System.err.println(iOException.getMessage());
+        }
+    }
+
+    default Object load(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new FileInputStream(file))) {
+            return input.readObject();
+        }
+    }
+
+    default String loadTextFile(File file) {
+        try {
+            return Files.lines(file.toPath()).reduce("", (result, line) -> result.concat(line
+            ).concat("\n"));
+        } catch (IOException exception) {
+            //System.err.println(exception.getMessage());
+        }
+
+        return "";
+    }
+
+    /**
+     * Saves the level of a game and the moves made on it, a file that can
+     * not be written is reported in a {@link MessageBox}
+     *
+     * @param file     the file to save to
+     * @param game     the game to save
+     * @param callback called with the file once it is saved
+     */
+    default void saveGame(File file, GameModel game, Optional<Consumer<File>> callback) {
+        if (file == null)
+            return;
+
+        try {
+            new GameSave(game.getLevel(), game.getMoves()).write(file.toPath());
+            callback.ifPresent(action -> action.accept(file));
+        } catch (IOException exception) {
+            MessageBox.showDialog("The game could not be saved to " + file.getName());
+        }
+    }
+
+    /**
+     * Loads a saved game by making its moves again on its level
+     *
+     * @param file a file written by {@link #saveGame(File, GameModel, Optional)}
+     *
+     * @return the game as it was saved
+     *
+     * @throws IOException if the file can not be read, is not a saved game
+     *                     or its moves can not be made on its level
+     */
+    default GameModel loadGame(File file) throws IOException {
+        GameSave save = GameSave.read(file.toPath());
+        GameModel game;
+
+        try {
+            game = new GameModel(Board.parse(save.getLevel()), save.getLevel());
+        } catch (IllegalArgumentException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+
+        for (int i = 0; i < save.getMoves().size(); ++i)
+            if (game.move(save.getMoves().get(i)) == Board.BLOCKED)
+                throw new IOException("move " + (i + 1) + " of the saved game is blocked");
+
+        return game;
+    }
+
+    default LevelCollection loadCollection(File file) throws IOException {
+        return LevelCollection.open(file.toPath());
+    }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.model;
+
+import com.jeffreyorazulike.sokoban.Actor;
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.MoveJournal;
+import com.jeffreyorazulike.sokoban.board.MoveLog;
+import com.jeffreyorazulike.sokoban.interfaces.Model;
+import java.io.Serializable;
+import java.util.ArrayList;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+/**
+ * <p>
+ * A view of a {@link Board} for the game screen, the actors are only created
+ * when they are first asked for so the model can be used without the JavaFX
+ * toolkit</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class GameModel implements Serializable, Model {
+
+    private transient MoveJournal journal;
+
+    // set only when they change, not on every move
+    private transient BooleanProperty undoable, redoable;
+    private transient StringProperty progress;
+    private transient int placed;
+
+    private transient Runnable onComplete;
+
+    private transient Actor[][] actors;
+    private transient Actor.Area[] area;
+
+    private final Board board;
+    private final String level;
+
+    /**
+     *
+     * @param board the position to play
+     * @param level the level the position was parsed from
+     *
+     * @throws IllegalArgumentException if the level does not have as many
+     *                                  boxes as goals
+     */
+    public GameModel(Board board, String level) {
+        if (board.getBoxCount() != board.getGoalCount())
+            throw new IllegalArgumentException("The level has " + board.getBoxCount() + " boxes and " + board.getGoalCount() + " goals");
+
+        this.board = board;
+        this.level = level;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    @Override
+    public Actor[][] getActors() {
+        if (actors == null)
+            inflate();
+
+        return actors;
+    }
+
+    public Actor.Area[] getArea() {
+        if (area == null)
+            inflate();
+
+        return area;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    /**
+     *
+     * @return the moves made since the level was loaded and not taken back
+     */
+    public MoveLog getMoves() {
+        return getJournal().toMoveLog();
+    }
+
+    public MoveJournal getJournal() {
+        if (journal == null)
+            journal = new MoveJournal();
+
+        return journal;
+    }
+
+    public ReadOnlyBooleanProperty undoableProperty() {
+        if (undoable == null)
+            undoable = new SimpleBooleanProperty(getJournal().canUndo());
+
+        return undoable;
+    }
+
+    public ReadOnlyBooleanProperty redoableProperty() {
+        if (redoable == null)
+            redoable = new SimpleBooleanProperty(getJournal().canRedo());
+
+        return redoable;
+    }
+
+    /**
+     *
+     * @return the boxes on a goal as "x / n boxes placed"
+     */
+    public ReadOnlyStringProperty progressProperty() {
+        if (progress == null)
+            progress = new SimpleStringProperty(progress());
+
+        return progress;
+    }
+
+    /**
+     *
+     * @return true if every box is on a goal, as {@link Board#isSolved()}
+     */
+    public boolean isComplete() {
+        return board.isSolved();
+    }
+
+    /**
+     *
+     * @param onComplete called when a move or redo puts the last box on a goal
+     */
+    public void setOnComplete(Runnable onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * Moves the player and the actors showing the board, the moves that
+     * could be redone are forgotten
+     *
+     * @param direction the direction the player should move in
+     *
+     * @return the outcome of {@link Board#move(int)}
+     */
+    public int move(int direction) {
+        int result = step(direction);
+
+        if (result != Board.BLOCKED) {
+            getJournal().record(direction, result == Board.PUSHED);
+            updateProperties();
+        }
+
+        if (result == Board.PUSHED)
+            checkComplete();
+
+        return result;
+    }
+
+    /**
+     * Takes back the last move
+     *
+     * @return false if there was no move to take back
+     */
+    public boolean undo() {
+        int move = getJournal().undo();
+
+        if (move == MoveJournal.NONE)
+            return false;
+
+        int direction = MoveJournal.direction(move), offset = board.offset(direction), player = board.getPlayer();
+
+        board.undo(direction, MoveJournal.isPush(move));
+
+        relocate(player, player - offset);
+        if (MoveJournal.isPush(move))
+            relocate(player + offset, player);
+
+        updateProperties();
+
+        return true;
+    }
+
+    /**
+     * Makes the last move taken back again
+     *
+     * @return false if there was no move to make again
+     */
+    public boolean redo() {
+        int move = getJournal().redo();
+
+        if (move == MoveJournal.NONE)
+            return false;
+
+        step(MoveJournal.direction(move));
+        updateProperties();
+
+        if (MoveJournal.isPush(move))
+            checkComplete();
+
+        return true;
+    }
+
+    // moves the player on the board and the actors with it
+    private int step(int direction) {
+        int result = board.move(direction);
+
+        if (result == Board.BLOCKED)
+            return result;
+
+        int offset = board.offset(direction), player = board.getPlayer();
+
+        if (result == Board.PUSHED)
+            relocate(player, player + offset);
+        relocate(player - offset, player);
+
+        return result;
+    }
+
+    private String progress() {
+        placed = board.getBoxesOnGoals();
+        return board.getBoxesOnGoals() + " / " + board.getBoxCount() + " boxes placed";
+    }
+
+    private void updateProperties() {
+        if (undoable != null)
+            undoable.set(journal.canUndo());
+        if (redoable != null)
+            redoable.set(journal.canRedo());
+        if (progress != null && placed != board.getBoxesOnGoals())
+            progress.set(progress());
+    }
+
+    private void checkComplete() {
+        if (onComplete != null && isComplete())
+            onComplete.run();
+    }
+
+    // moves the actor on a cell of the board to another cell
+    private void relocate(int from, int to) {
+        if (actors == null)
+            return;
+
+        int fromRow = board.row(from), fromColumn = board.column(from);
+        int toRow = board.row(to), toColumn = board.column(to);
+
+        Actor actor = actors[fromRow][fromColumn];
+        actors[fromRow][fromColumn] = actors[toRow][toColumn];
+        actors[toRow][toColumn] = actor;
+
+        actor.setRow(toRow);
+        actor.setColumn(toColumn);
+    }
+
+    // creates the actors showing the board
+    private void inflate() {
+        Actor[][] inflated = new Actor[board.getRows()][board.getColumns()];
+        ArrayList<Actor.Area> goals = new ArrayList<>(board.getGoalCount());
+
+        for (int row = 0; row < inflated.length; ++row)
+            for (int column = 0; column < inflated[row].length; ++column) {
+                int cell = board.index(row, column);
+
+                if (board.isWall(cell))
+                    inflated[row][column] = new Actor.Wall(row, column);
+                else if (board.hasBox(cell))
+                    inflated[row][column] = new Actor.Baggage(row, column);
+                else if (board.getPlayer() == cell)
+                    inflated[row][column] = new Actor.Player(row, column);
+
+                if (board.isGoal(cell))
+                    goals.add(new Actor.Area(row, column));
+            }
+
+        actors = inflated;
+        area = goals.toArray(new Actor.Area[goals.size()]);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.model;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.solver.Solution;
+import com.jeffreyorazulike.sokoban.solver.Solver;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javafx.application.Platform;
+
+/**
+ * <p>
+ * Finds the next push of a game in the background. The solver runs on a
+ * daemon thread so the JavaFX application thread never waits for it, and
+ * a new request or {@link #cancel()} interrupts the search still running</p>
+ *
+ * <p>
+ * The best push is the same wherever the player stands in its area, so the
+ * pushes found are kept by {@link Board#hash()}. The hash does not tell the
+ * walls of two levels apart, so {@link #clear()} must be called when
+ * another level is loaded. Every position of a solution is kept, not only
+ * the first, so following the hints costs one search. The engine is only
+ * used from the JavaFX application thread</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class HintEngine {
+
+    /**
+     * Told what a request found
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         *
+         * @param status {@link Solution.Status#SOLVED} if a push was found,
+         *               otherwise why not
+         * @param push   the push, see {@link #box(int)} and
+         *               {@link #direction(int)}, or {@link #NONE}
+         */
+        void hint(Solution.Status status, int push);
+    }
+
+    /**
+     * The push of a position that can not be solved
+     */
+    public static final int NONE = -1;
+
+    // a search for a hint should not keep the player waiting longer
+    private static final long TIME_LIMIT = 15_000;
+
+    private static final int CACHED = 4096;
+
+    // the default table takes longer to allocate than most hint searches run
+    private static final long TABLE_MEMORY = 16L << 20;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "Sokoban hint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Long, Integer> pushes = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+            return size() > CACHED;
+        }
+    };
+
+    private Future<?> search;
+
+    // a result that comes back after a newer request or a cancel is not told
+    private long generation;
+
+    /**
+     * Finds the next push of a position, the listener is called later on the
+     * JavaFX application thread, or at once if the position was seen before
+     *
+     * @param board    the position, it is copied before the search starts
+     * @param listener told what was found, never told if the request is
+     *                 cancelled
+     */
+    public void request(Board board, Listener listener) {
+        cancel();
+
+        Integer push = pushes.get(board.hash());
+        if (push != null) {
+            listener.hint(push == NONE ? Solution.Status.UNSOLVABLE : Solution.Status.SOLVED, push);
+            return;
+        }
+
+        long request = generation;
+        Board start = new Board(board);
+        Solver solver = new Solver(start);
+        solver.setTimeLimit(TIME_LIMIT);
+        solver.setTableMemory(TABLE_MEMORY);
+
+        search = executor.submit(() -> {
+            Solution solution = solver.solve();
+
+            if (solution.getStatus() == Solution.Status.CANCELLED)
+                return;
+
+            Map<Long, Integer> found = replay(start, solution);
+            long position = start.hash();
+
+            Platform.runLater(() -> {
+                pushes.putAll(found);
+
+                if (request == generation)
+                    listener.hint(solution.getStatus(), found.getOrDefault(position, NONE));
+            });
+        });
+    }
+
+    /**
+     * Stops the search of the last request, its listener is not called
+     */
+    public void cancel() {
+        ++generation;
+
+        if (search != null) {
+            search.cancel(true);
+            search = null;
+        }
+    }
+
+    /**
+     * Stops the search of the last request and forgets the pushes found, used
+     * when another level is loaded
+     */
+    public void clear() {
+        cancel();
+        pushes.clear();
+    }
+
+    /**
+     *
+     * @param push a push told to a listener
+     *
+     * @return the cell of the box to push
+     */
+    public static int box(int push) {
+        return push >> 2;
+    }
+
+    /**
+     *
+     * @param push a push told to a listener
+     *
+     * @return the direction to push the box in, see {@link Board#LEFT}
+     */
+    public static int direction(int push) {
+        return push & 3;
+    }
+
+    // the push made from every position of the solution, nothing if the search gave up
+    private static Map<Long, Integer> replay(Board start, Solution solution) {
+        Map<Long, Integer> found = new LinkedHashMap<>();
+
+        if (solution.getStatus() == Solution.Status.UNSOLVABLE)
+            found.put(start.hash(), NONE);
+        if (!solution.isSolved())
+            return found;
+
+        Board board = new Board(start);
+        String moves = solution.getMoves();
+
+        for (int i = 0; i < moves.length(); ++i) {
+            char move = moves.charAt(i);
+            int direction = Board.DIRECTIONS.indexOf(Character.toLowerCase(move));
+
+            if (Character.isUpperCase(move))
+                found.putIfAbsent(board.hash(), (board.getPlayer() + board.offset(direction)) << 2 | direction);
+
+            board.move(direction);
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.model;
+
+import com.jeffreyorazulike.sokoban.Actor;
+import static com.jeffreyorazulike.sokoban.SokobanConstants.*;
+import com.jeffreyorazulike.sokoban.interfaces.Model;
+import com.jeffreyorazulike.sokoban.metrics.LevelCodecEvent;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import com.jeffreyorazulike.sokoban.view.TileViewport;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The level being built, one level character per cell so a level of any
+ * size stays small. The actors are only made if they are asked for</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class LevelBuilderModel implements Model, Serializable, TileViewport.Tiles {
+
+    // the level is turned into text to be saved or checked
+    private static final Metrics.Timer ENCODE = Metrics.timer("level.encode");
+
+    private int rows, columns;
+
+    // the level characters of the cells row by row
+    private char[] cells;
+
+    public LevelBuilderModel(int row, int column) {
+        rows = row;
+        columns = column;
+        cells = new char[row * column];
+        Arrays.fill(cells, WALL);
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public char getTile(int row, int column) {
+        return cells[row * columns + column];
+    }
+
+    /**
+     *
+     * @param row       the row of the cell
+     * @param column    the column of the cell
+     * @param character the level character the cell should hold
+     */
+    public void setTile(int row, int column, char character) {
+        cells[row * columns + column] = character;
+    }
+
+    @Override
+    public Actor[][] getActors() {
+        Actor[][] actors = new Actor[rows][columns];
+
+        for (int row = 0; row < rows; ++row)
+            for (int column = 0; column < columns; ++column)
+                actors[row][column] = Actor.getActor(getTile(row, column), row, column, (r, c) -> new Actor.Empty(r, c));
+
+        return actors;
+    }
+
+    /**
+     * Resizes the level, new cells are walls
+     *
+     * @return false if the level already has the size
+     */
+    public boolean update(int row, int column) {
+        if (rows == row && columns == column)
+            return false;
+
+        char[] update = new char[row * column];
+        Arrays.fill(update, WALL);
+
+        for (int updateRow = 0; updateRow < row && updateRow < rows; ++updateRow)
+            System.arraycopy(cells, updateRow * columns, update, updateRow * column, Math.min(column, columns));
+
+        rows = row;
+        columns = column;
+        cells = update;
+
+        return true;
+    }
+
+    /**
+     *
+     * @return true if every row starts and ends with a wall, there is one
+     *         player and as many baggage as areas
+     */
+    public boolean isWellBuilt() {
+        int player = 0, baggage = 0, area = 0;
+
+        for (int row = 0; row < rows; ++row) {
+            int first = -1, last = -1;
+
+            for (int column = 0; column < columns; ++column) {
+                char tile = getTile(row, column);
+
+                if (tile == EMPTY)
+                    continue;
+                if (first == -1)
+                    first = column;
+                last = column;
+
+                if (tile == PLAYER || tile == '+')
+                    ++player;
+                if (tile == BAGGAGE || tile == '*')
+                    ++baggage;
+                if (tile == AREA || tile == '*' || tile == '+')
+                    ++area;
+            }
+
+            if (first != -1 && (getTile(row, first) != WALL || getTile(row, last) != WALL))
+                return false;
+        }
+
+        return !(baggage != area || baggage == 0 || player != 1);
+    }
+
+    /**
+     *
+     * @return the level, one row per line
+     */
+    public String toLevel() {
+        LevelCodecEvent event = new LevelCodecEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        StringBuilder level = new StringBuilder(rows * (columns + 1));
+
+        for (int row = 0; row < rows; ++row)
+            level.append(cells, row * columns, columns).append('\n');
+
+        ENCODE.stop(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "encode";
+            event.characters = level.length();
+            event.cells = cells.length;
+            event.commit();
+        }
+
+        return level.toString();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.model;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.solver.Solution;
+import com.jeffreyorazulike.sokoban.solver.Solver;
+import com.jeffreyorazulike.sokoban.solver.TranspositionTable;
+import javafx.concurrent.Task;
+
+/**
+ * <p>
+ * Finds out if a level can be won, and in how few pushes, within a budget
+ * of positions and time. The progress is the larger part of either budget
+ * used, the message says what is going on and at the end what was found</p>
+ *
+ * <p>
+ * Cancelling the task interrupts the solver, run it on a thread of its own
+ * or an executor</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class SolvabilityCheck extends Task<Solution> {
+
+    private static final long NODE_LIMIT = 2_000_000, TIME_LIMIT = 30_000;
+
+    // a slot for every position the node limit lets the check expand
+    private static final long TABLE_MEMORY = NODE_LIMIT * TranspositionTable.SLOT_SIZE;
+
+    private final Board board;
+
+    /**
+     *
+     * @param board the level to check, it is copied
+     */
+    public SolvabilityCheck(Board board) {
+        this.board = new Board(board);
+        updateMessage("Checking the level…");
+    }
+
+    @Override
+    protected Solution call() {
+        long start = System.currentTimeMillis();
+
+        Solver solver = new Solver(board);
+        solver.setNodeLimit(NODE_LIMIT);
+        solver.setTimeLimit(TIME_LIMIT);
+        solver.setTableMemory(TABLE_MEMORY);
+        solver.setOnProgress(expanded -> {
+            updateProgress(Math.max((double) expanded / NODE_LIMIT, (double) (System.currentTimeMillis() - start) / TIME_LIMIT), 1);
+            updateMessage("Checking the level… " + expanded + " positions searched");
+        });
+
+        Solution solution = solver.solve();
+
+        switch (solution.getStatus()) {
+            case SOLVED:
+                updateMessage("The level can be won in " + solution.getPushCount() + " pushes at the fewest");
+                break;
+            case UNSOLVABLE:
+                updateMessage("The level can not be won: " + proof(solution));
+                break;
+            case CANCELLED:
+                break;
+            default:
+                updateMessage("Not decided, the check gave up after " + solution.getNodesExpanded() + " positions");
+        }
+
+        updateProgress(1, 1);
+
+        return solution;
+    }
+
+    // the simplest reason the level can not be won
+    private String proof(Solution solution) {
+        if (board.getBoxCount() > board.getGoalCount())
+            return "there are more baggage than areas";
+
+        board.markDeadSquares();
+
+        for (int row = 0; row < board.getRows(); ++row)
+            for (int column = 0; column < board.getColumns(); ++column)
+                if (board.hasBox(board.index(row, column)) && board.isDead(board.index(row, column)))
+                    return "the baggage at row " + (row + 1) + ", column " + (column + 1) + " can never reach an area";
+
+        return "no solution exists, the search space was exhausted after " + solution.getNodesExpanded() + " positions";
+    }
+}
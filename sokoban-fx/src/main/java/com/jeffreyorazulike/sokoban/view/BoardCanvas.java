@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.view;
+
+import static com.jeffreyorazulike.sokoban.SokobanConstants.*;
+import com.jeffreyorazulike.sokoban.board.Board;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * <p>
+ * Draws a board on one canvas instead of a node per cell. The walls and
+ * areas never change so they are drawn once into a background image, a move
+ * only copies the background back over the cells it changed and draws the
+ * baggage and player on them</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class BoardCanvas extends Canvas {
+
+    private final Board board;
+
+    private final WritableImage background;
+
+    public BoardCanvas(Board board) {
+        super(board.getColumns() * SPACE, board.getRows() * SPACE);
+        this.board = board;
+
+        GraphicsContext graphics = getGraphicsContext2D();
+
+        for (int row = 0; row < board.getRows(); ++row)
+            for (int column = 0; column < board.getColumns(); ++column) {
+                int cell = board.index(row, column);
+
+                if (board.isGoal(cell))
+                    draw(graphics, AREA, row, column);
+                if (board.isWall(cell))
+                    draw(graphics, WALL, row, column);
+            }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        background = snapshot(parameters, null);
+
+        paint();
+    }
+
+    /**
+     * Draws the whole board again
+     */
+    public final void paint() {
+        GraphicsContext graphics = getGraphicsContext2D();
+
+        graphics.clearRect(0, 0, getWidth(), getHeight());
+        graphics.drawImage(background, 0, 0);
+
+        for (int row = 0; row < board.getRows(); ++row)
+            for (int column = 0; column < board.getColumns(); ++column)
+                drawPiece(graphics, board.index(row, column), row, column);
+    }
+
+    /**
+     * Draws the cells a move, undo or redo changed. The player only ever
+     * leaves one cell for its neighbour, a box can be on either side
+     *
+     * @param from the cell the player stood on before
+     * @param to   the cell the player stands on now
+     */
+    public void repaint(int from, int to) {
+        if (from == to)
+            return;
+
+        repaint(from - (to - from));
+        repaint(from);
+        repaint(to);
+        repaint(to + (to - from));
+    }
+
+    /**
+     *
+     * @param cell the cell of the board to draw again
+     */
+    public void repaint(int cell) {
+        int row = board.row(cell), column = board.column(cell);
+
+        // the ring of walls around the level is not drawn
+        if (row < 0 || row >= board.getRows() || column < 0 || column >= board.getColumns())
+            return;
+
+        GraphicsContext graphics = getGraphicsContext2D();
+        double x = column * SPACE, y = row * SPACE;
+
+        graphics.clearRect(x, y, SPACE, SPACE);
+        graphics.drawImage(background, x, y, SPACE, SPACE, x, y, SPACE, SPACE);
+        drawPiece(graphics, cell, row, column);
+    }
+
+    /**
+     * Draws a move part of the way, the player and the baggage it pushed
+     * slide from their old cells to the ones they are on now
+     *
+     * @param from     the cell the player stood on before the move
+     * @param to       the cell the player stands on now
+     * @param pushed   true if the move pushed a baggage
+     * @param progress how far the move is drawn, from 0 to 1
+     */
+    public void slide(int from, int to, boolean pushed, double progress) {
+        int step = to - from;
+
+        if (step == 0)
+            return;
+
+        GraphicsContext graphics = getGraphicsContext2D();
+
+        // the cells under the slide are cleared, a baggage that did not move is drawn back
+        for (int cell = from; cell != to + 2 * step; cell += step) {
+            int row = board.row(cell), column = board.column(cell);
+
+            if (row < 0 || row >= board.getRows() || column < 0 || column >= board.getColumns())
+                continue;
+
+            double x = column * SPACE, y = row * SPACE;
+
+            graphics.clearRect(x, y, SPACE, SPACE);
+            graphics.drawImage(background, x, y, SPACE, SPACE, x, y, SPACE, SPACE);
+
+            if (board.hasBox(cell) && !(pushed && cell == to + step))
+                draw(graphics, BAGGAGE, row, column);
+        }
+
+        double rowStep = (board.row(to) - board.row(from)) * progress, columnStep = (board.column(to) - board.column(from)) * progress;
+
+        draw(graphics, PLAYER, board.row(from) + rowStep, board.column(from) + columnStep);
+        if (pushed)
+            draw(graphics, BAGGAGE, board.row(to) + rowStep, board.column(to) + columnStep);
+    }
+
+    private void drawPiece(GraphicsContext graphics, int cell, int row, int column) {
+        if (board.hasBox(cell))
+            draw(graphics, BAGGAGE, row, column);
+        else if (board.getPlayer() == cell)
+            draw(graphics, PLAYER, row, column);
+    }
+
+    private static void draw(GraphicsContext graphics, char tile, double row, double column) {
+        SpriteAtlas.of(1).draw(graphics, tile, column * SPACE, row * SPACE);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.view;
+
+import static com.jeffreyorazulike.sokoban.SokobanConstants.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * <p>
+ * The sprites of the game packed side by side into one image, each centred
+ * in a cell of its own so a tile is drawn by copying one cell. An atlas is
+ * made once for every zoom asked for, with the sprites scaled as they are
+ * packed, so drawing never scales</p>
+ *
+ * <p>
+ * Atlases are only made and used on the JavaFX application thread</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class SpriteAtlas {
+
+    private static final char[] TILES = {WALL, AREA, BAGGAGE, PLAYER};
+
+    private static final Image[] IMAGES = {WALL_IMAGE, AREA_IMAGE, BAGGAGE_IMAGE, PLAYER_IMAGE};
+
+    // zooming through the wheel visits a few zooms over and over
+    private static final int CACHED = 8;
+
+    private static final Map<Double, SpriteAtlas> ATLASES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Double, SpriteAtlas> eldest) {
+            return size() > CACHED;
+        }
+    };
+
+    private final WritableImage atlas;
+
+    // the side of a cell in pixels
+    private final int cell;
+
+    private SpriteAtlas(double zoom) {
+        cell = (int) Math.ceil(SPACE * zoom);
+        atlas = new WritableImage(cell * TILES.length, cell);
+
+        for (int i = 0; i < IMAGES.length; ++i) {
+            Image image = scale(IMAGES[i], zoom);
+            int width = Math.min(cell, (int) image.getWidth()), height = Math.min(cell, (int) image.getHeight());
+
+            atlas.getPixelWriter().setPixels(i * cell + (cell - width) / 2, (cell - height) / 2, width, height, image.getPixelReader(), 0, 0);
+        }
+    }
+
+    /**
+     *
+     * @param zoom the zoom, 1 keeps the sprites at their own size
+     *
+     * @return the atlas for the zoom
+     */
+    public static SpriteAtlas of(double zoom) {
+        return ATLASES.computeIfAbsent(zoom, SpriteAtlas::new);
+    }
+
+    /**
+     * Draws a tile, a box or player on a goal is drawn over the goal
+     *
+     * @param graphics where to draw
+     * @param tile     the character of the tile in the XSB format
+     * @param x        the left of the cell of the tile
+     * @param y        the top of the cell of the tile
+     */
+    public void draw(GraphicsContext graphics, char tile, double x, double y) {
+        switch (tile) {
+            case '*':
+                draw(graphics, 1, x, y);
+                draw(graphics, 2, x, y);
+                break;
+            case '+':
+                draw(graphics, 1, x, y);
+                draw(graphics, 3, x, y);
+                break;
+            default:
+                int sprite = sprite(tile);
+                if (sprite != -1)
+                    draw(graphics, sprite, x, y);
+        }
+    }
+
+    private void draw(GraphicsContext graphics, int sprite, double x, double y) {
+        graphics.drawImage(atlas, sprite * cell, 0, cell, cell, x, y, cell, cell);
+    }
+
+    private static int sprite(char tile) {
+        for (int i = 0; i < TILES.length; ++i)
+            if (TILES[i] == tile)
+                return i;
+        return -1;
+    }
+
+    // decodes the sprite again at the new size, smoother than stretching the pixels
+    private static Image scale(Image image, double zoom) {
+        if (zoom == 1 || image.getUrl() == null)
+            return image;
+
+        return new Image(image.getUrl(), Math.max(1, Math.round(image.getWidth() * zoom)), Math.max(1, Math.round(image.getHeight() * zoom)), false, true);
+    }
+}
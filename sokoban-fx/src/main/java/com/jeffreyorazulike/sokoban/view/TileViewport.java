@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.view;
+
+import static com.jeffreyorazulike.sokoban.SokobanConstants.*;
+import com.jeffreyorazulike.sokoban.board.Board;
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+/**
+ * <p>
+ * Shows a window onto a grid of tiles of any size. Only the tiles inside the
+ * window are drawn, on a canvas the size of the window, so the memory and
+ * the time of a frame depend on the window and not on the grid</p>
+ *
+ * <p>
+ * The wheel scrolls, the wheel with control held zooms, and
+ * {@link #follow(int, int)} glides the window to keep a tile in sight</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class TileViewport extends Region {
+
+    /**
+     * A grid of tiles, every tile is a level character
+     */
+    public interface Tiles {
+
+        int getRows();
+
+        int getColumns();
+
+        /**
+         *
+         * @return the character of the tile in the XSB format
+         */
+        char getTile(int row, int column);
+    }
+
+    private static final double MIN_ZOOM = 0.125, MAX_ZOOM = 4;
+
+    // the part of the window kept between a followed tile and the edge
+    private static final double MARGIN = 0.25;
+
+    private final Tiles tiles;
+
+    private final Canvas canvas = new Canvas();
+
+    private double zoom = 1;
+
+    // the sprites already scaled to the zoom
+    private SpriteAtlas atlas = SpriteAtlas.of(1);
+
+    // the tile marked by setHighlight, -1 when none is
+    private int highlightRow = -1, highlightColumn = -1;
+
+    // the top left corner of the window in grid pixels, and where it is gliding to
+    private double x, y, targetX, targetY;
+
+    private final AnimationTimer glide = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            // close a third of the distance every frame
+            x += (targetX - x) / 3;
+            y += (targetY - y) / 3;
+
+            if (Math.abs(targetX - x) < 0.5 && Math.abs(targetY - y) < 0.5) {
+                x = targetX;
+                y = targetY;
+                stop();
+            }
+
+            repaint();
+        }
+    };
+
+    public TileViewport(Tiles tiles) {
+        this.tiles = tiles;
+
+        getChildren().add(canvas);
+        setFocusTraversable(true);
+
+        addEventHandler(ScrollEvent.SCROLL, e -> {
+            if (e.isControlDown())
+                setZoom(zoom * (e.getDeltaY() > 0 ? 1.25 : 0.8), e.getX(), e.getY());
+            else
+                scrollTo(targetX - e.getDeltaX(), targetY - e.getDeltaY());
+            e.consume();
+        });
+    }
+
+    /**
+     *
+     * @param board the board to show
+     *
+     * @return the tiles of the board
+     */
+    public static Tiles of(Board board) {
+        return new Tiles() {
+            @Override
+            public int getRows() {
+                return board.getRows();
+            }
+
+            @Override
+            public int getColumns() {
+                return board.getColumns();
+            }
+
+            @Override
+            public char getTile(int row, int column) {
+                return board.character(board.index(row, column));
+            }
+        };
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Zooms around a point of the window
+     *
+     * @param zoom the new zoom, 1 draws the images at their own size
+     * @param atX  the point of the window that stays in place
+     * @param atY  the point of the window that stays in place
+     */
+    public void setZoom(double zoom, double atX, double atY) {
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+
+        double scale = zoom / this.zoom;
+        this.zoom = zoom;
+        atlas = SpriteAtlas.of(zoom);
+
+        x = targetX = (x + atX) * scale - atX;
+        y = targetY = (y + atY) * scale - atY;
+
+        scrollTo(targetX, targetY);
+    }
+
+    /**
+     * Glides the window so that a tile is not too close to an edge
+     *
+     * @param row    the row of the tile
+     * @param column the column of the tile
+     */
+    public void follow(int row, int column) {
+        double size = tileSize(), width = getWidth(), height = getHeight();
+        double left = column * size, top = row * size, marginX = width * MARGIN, marginY = height * MARGIN;
+        double toX = targetX, toY = targetY;
+
+        if (left - toX < marginX)
+            toX = left - marginX;
+        else if (left + size - toX > width - marginX)
+            toX = left + size - width + marginX;
+
+        if (top - toY < marginY)
+            toY = top - marginY;
+        else if (top + size - toY > height - marginY)
+            toY = top + size - height + marginY;
+
+        scrollTo(toX, toY);
+    }
+
+    // starts gliding to a corner, kept inside the grid
+    private void scrollTo(double toX, double toY) {
+        double size = tileSize();
+
+        targetX = Math.max(0, Math.min(toX, tiles.getColumns() * size - getWidth()));
+        targetY = Math.max(0, Math.min(toY, tiles.getRows() * size - getHeight()));
+
+        if (targetX != x || targetY != y)
+            glide.start();
+        else
+            repaint();
+    }
+
+    /**
+     *
+     * @return the row of the tile under a point of the window, can be
+     *         outside the grid
+     */
+    public int rowAt(double atY) {
+        return (int) Math.floor((y + atY) / tileSize());
+    }
+
+    /**
+     *
+     * @return the column of the tile under a point of the window, can be
+     *         outside the grid
+     */
+    public int columnAt(double atX) {
+        return (int) Math.floor((x + atX) / tileSize());
+    }
+
+    /**
+     * Marks a tile with a frame, until another tile is marked
+     *
+     * @param row    the row of the tile, -1 to take the mark away
+     * @param column the column of the tile
+     */
+    public void setHighlight(int row, int column) {
+        int lastRow = highlightRow, lastColumn = highlightColumn;
+
+        highlightRow = row;
+        highlightColumn = column;
+
+        repaint(lastRow, lastColumn);
+        repaint(row, column);
+    }
+
+    /**
+     * Draws every tile in the window
+     */
+    public void repaint() {
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        double size = tileSize();
+
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        int firstRow = Math.max(0, (int) (y / size)), lastRow = Math.min(tiles.getRows() - 1, (int) ((y + canvas.getHeight()) / size));
+        int firstColumn = Math.max(0, (int) (x / size)), lastColumn = Math.min(tiles.getColumns() - 1, (int) ((x + canvas.getWidth()) / size));
+
+        for (int row = firstRow; row <= lastRow; ++row)
+            for (int column = firstColumn; column <= lastColumn; ++column)
+                draw(graphics, row, column, size);
+    }
+
+    /**
+     * Draws one tile again if it is in the window
+     *
+     * @param row    the row of the tile
+     * @param column the column of the tile
+     */
+    public void repaint(int row, int column) {
+        double size = tileSize(), left = column * size - x, top = row * size - y;
+
+        if (row < 0 || row >= tiles.getRows() || column < 0 || column >= tiles.getColumns())
+            return;
+        if (left + size <= 0 || top + size <= 0 || left >= canvas.getWidth() || top >= canvas.getHeight())
+            return;
+
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        graphics.clearRect(left, top, size, size);
+        draw(graphics, row, column, size);
+    }
+
+    private void draw(GraphicsContext graphics, int row, int column, double size) {
+        atlas.draw(graphics, tiles.getTile(row, column), column * size - x, row * size - y);
+
+        if (row == highlightRow && column == highlightColumn) {
+            graphics.setStroke(Color.LIGHTGREEN);
+            graphics.setLineWidth(3);
+            graphics.strokeRect(column * size - x + 1.5, row * size - y + 1.5, size - 3, size - 3);
+        }
+    }
+
+    private double tileSize() {
+        return SPACE * zoom;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (canvas.getWidth() == getWidth() && canvas.getHeight() == getHeight())
+            return;
+
+        canvas.setWidth(getWidth());
+        canvas.setHeight(getHeight());
+
+        // a bigger window may show past the end of the grid
+        x = targetX = Math.max(0, Math.min(x, tiles.getColumns() * tileSize() - getWidth()));
+        y = targetY = Math.max(0, Math.min(y, tiles.getRows() * tileSize() - getHeight()));
+
+        repaint();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return Math.min(tiles.getColumns() * SPACE, 1200);
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return Math.min(tiles.getRows() * SPACE, 800);
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.batch;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.io.LevelCollection;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import com.jeffreyorazulike.sokoban.solver.Solution;
+import com.jeffreyorazulike.sokoban.solver.Solver;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Solves every level of a collection without the JavaFX toolkit, for
+ * batch hosts. The levels are solved on a pool of threads, each with its
+ * own budget of time, memory and positions, and every result is written
+ * and flushed as soon as its level is done, so the report can be followed
+ * while the batch runs</p>
+ *
+ * <p>
+ * Usage: {@code BatchSolver [options] collection}, the options are
+ * <ul>
+ * <li>{@code --threads n} the levels solved at once, one per core by
+ * default</li>
+ * <li>{@code --time seconds} the time a level may take, 60 by default</li>
+ * <li>{@code --memory megabytes} the memory a level may use, the heap
+ * shared by the threads by default</li>
+ * <li>{@code --table megabytes} the transposition table of a level, 16 by
+ * default</li>
+ * <li>{@code --nodes n} the positions a level may expand</li>
+ * <li>{@code --objective pushes|moves} what the solutions have the fewest
+ * of</li>
+ * <li>{@code --format csv|json} a CSV file with a header, or one JSON
+ * object per line</li>
+ * <li>{@code --output file} where to write, the standard output by
+ * default</li>
+ * </ul>
+ * The exit status is 0 if every level was solved, 1 if not and 2 if the
+ * options are wrong</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class BatchSolver {
+
+    public enum Format {
+        CSV, JSON
+    }
+
+    private static final String[] COLUMNS = {"level", "title", "status", "pushes", "moves", "nodes", "millis", "solution"};
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private long timeLimit = 60_000, memoryLimit = -1, nodeLimit = Long.MAX_VALUE, tableMemory = 16L << 20;
+
+    private Solver.Objective objective = Solver.Objective.PUSHES;
+
+    private Format format = Format.CSV;
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     *
+     * @param timeLimit the milliseconds a level may take
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     *
+     * @param memoryLimit the bytes a level may use, -1 to share the heap
+     *                    between the threads
+     */
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     *
+     * @param tableMemory the bytes of the transposition table of a level, it
+     *                    is cleared for every level so a small table keeps a
+     *                    collection of easy levels fast
+     */
+    public void setTableMemory(long tableMemory) {
+        this.tableMemory = tableMemory;
+    }
+
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public void setObjective(Solver.Objective objective) {
+        this.objective = objective;
+    }
+
+    public void setFormat(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Solves every level, blocking until the last is written
+     *
+     * @param collection the levels
+     * @param out        where the results are written
+     *
+     * @return the number of levels solved
+     *
+     * @throws IOException if a result could not be written
+     */
+    public int solve(LevelCollection collection, Writer out) throws IOException {
+        // the searches keep most of their memory until they end, so the heap is split between them
+        long memory = memoryLimit > 0 ? memoryLimit : Runtime.getRuntime().maxMemory() / (threads + 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Sokoban batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<String> results = new ExecutorCompletionService<>(pool);
+        AtomicInteger solved = new AtomicInteger();
+
+        for (int level = 0; level < collection.size(); ++level) {
+            int number = level;
+            results.submit(() -> solve(collection, number, memory, solved));
+        }
+
+        if (format == Format.CSV)
+            out.write(String.join(",", COLUMNS) + "\n");
+
+        try {
+            for (int i = 0; i < collection.size(); ++i) {
+                out.write(results.take().get());
+                out.flush();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return solved.get();
+    }
+
+    // solves one level, the result is the line of the report
+    private String solve(LevelCollection collection, int level, long memory, AtomicInteger solved) {
+        String title = collection.getTitle(level);
+        Board board;
+
+        try {
+            board = collection.getBoard(level);
+        } catch (IllegalArgumentException exception) {
+            return line(level, title, "INVALID", -1, -1, 0, 0, exception.getMessage());
+        }
+
+        if (board.getPlayer() < 0)
+            return line(level, title, "INVALID", -1, -1, 0, 0, "the level has no player");
+
+        Solver solver = new Solver(board);
+        solver.setObjective(objective);
+        solver.setTimeLimit(timeLimit);
+        solver.setMemoryLimit(memory);
+        solver.setTableMemory(tableMemory);
+        solver.setNodeLimit(nodeLimit);
+
+        Solution solution = solver.solve();
+
+        if (solution.isSolved())
+            solved.incrementAndGet();
+
+        return line(level, title, solution.getStatus().name(), solution.getPushCount(), solution.getMoveCount(),
+                solution.getNodesExpanded(), solution.getElapsed() / 1_000_000, solution.getMoves());
+    }
+
+    private String line(int level, String title, String status, int pushes, int moves, long nodes, long millis, String solution) {
+        Object[] values = {level + 1, title, status, pushes, moves, nodes, millis, solution};
+        StringBuilder line = new StringBuilder(128);
+
+        if (format == Format.JSON)
+            line.append('{');
+
+        for (int i = 0; i < values.length; ++i) {
+            if (i > 0)
+                line.append(',');
+
+            if (format == Format.JSON) {
+                line.append('"').append(COLUMNS[i]).append("\":");
+                if (values[i] instanceof String)
+                    json(line, (String) values[i]);
+                else
+                    line.append(values[i] == null ? "null" : values[i]);
+            } else if (values[i] instanceof String)
+                csv(line, (String) values[i]);
+            else if (values[i] != null)
+                line.append(values[i]);
+        }
+
+        return line.append(format == Format.JSON ? "}\n" : "\n").toString();
+    }
+
+    private static void csv(StringBuilder line, String value) {
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void json(StringBuilder line, String value) {
+        line.append('"');
+
+        for (int i = 0; i < value.length(); ++i) {
+            char character = value.charAt(i);
+
+            if (character == '"' || character == '\\')
+                line.append('\\').append(character);
+            else if (character < ' ')
+                line.append(String.format("\\u%04x", (int) character));
+            else
+                line.append(character);
+        }
+
+        line.append('"');
+    }
+
+    public static void main(String[] args) {
+        BatchSolver batch = new BatchSolver();
+        Path collection = null, output = null;
+
+        try {
+            for (int i = 0; i < args.length; ++i)
+                switch (args[i]) {
+                    case "--threads":
+                        batch.setThreads(Integer.parseInt(args[++i]));
+                        break;
+                    case "--time":
+                        batch.setTimeLimit(Long.parseLong(args[++i]) * 1000);
+                        break;
+                    case "--memory":
+                        batch.setMemoryLimit(Long.parseLong(args[++i]) << 20);
+                        break;
+                    case "--table":
+                        batch.setTableMemory(Long.parseLong(args[++i]) << 20);
+                        break;
+                    case "--nodes":
+                        batch.setNodeLimit(Long.parseLong(args[++i]));
+                        break;
+                    case "--objective":
+                        batch.setObjective(Solver.Objective.valueOf(args[++i].toUpperCase()));
+                        break;
+                    case "--format":
+                        batch.setFormat(Format.valueOf(args[++i].toUpperCase()));
+                        break;
+                    case "--output":
+                        output = Paths.get(args[++i]);
+                        break;
+                    default:
+                        if (args[i].startsWith("--") || collection != null)
+                            throw new IllegalArgumentException("unknown option " + args[i]);
+                        collection = Paths.get(args[i]);
+                }
+
+            if (collection == null)
+                throw new IllegalArgumentException("no collection given");
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            System.err.println(exception instanceof ArrayIndexOutOfBoundsException ? "an option is missing its value" : exception.getMessage());
+            System.err.println("Usage: BatchSolver [--threads n] [--time seconds] [--memory megabytes] [--table megabytes] [--nodes n] "
+                    + "[--objective pushes|moves] [--format csv|json] [--output file] collection");
+            System.exit(2);
+            return;
+        }
+
+        Metrics.dumpOnExit();
+        long start = System.nanoTime();
+
+        try (Writer out = output != null ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                : new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+            LevelCollection levels = LevelCollection.open(collection);
+            int solved = batch.solve(levels, out);
+
+            System.err.printf("%d of %d levels solved in %.1f s%n", solved, levels.size(), (System.nanoTime() - start) / 1e9);
+            System.exit(solved == levels.size() ? 0 : 1);
+        } catch (IOException | UncheckedIOException exception) {
+            System.err.println(exception.getMessage());
+            System.exit(1);
+        }
+    }
+}
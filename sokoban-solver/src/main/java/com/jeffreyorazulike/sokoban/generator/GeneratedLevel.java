@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.generator;
+
+/**
+ * <p>
+ * A level made by the {@link LevelGenerator} and what the solver found out
+ * about it</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class GeneratedLevel {
+
+    private final String level, key;
+    private final long seed, nodes;
+    private final int pushes, moves;
+
+    GeneratedLevel(String level, String key, long seed, int pushes, int moves, long nodes) {
+        this.level = level;
+        this.key = key;
+        this.seed = seed;
+        this.pushes = pushes;
+        this.moves = moves;
+        this.nodes = nodes;
+    }
+
+    /**
+     *
+     * @return the level in the XSB format, one row per line
+     */
+    public String getLevel() {
+        return level;
+    }
+
+    /**
+     *
+     * @return the same for every level that only differs by a rotation, a
+     *         mirror or where the player stands in its area
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     *
+     * @return the seed the level was made from, the same seed and settings
+     *         make the same level
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     *
+     * @return the fewest pushes that win the level
+     */
+    public int getPushes() {
+        return pushes;
+    }
+
+    /**
+     *
+     * @return the moves of the solution with the fewest pushes
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     *
+     * @return the positions the solver expanded to prove the fewest pushes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     *
+     * @return the pushes weighted by how hard the solver had to look, a
+     *         level with many pushes and an easy search is a long but
+     *         simple walk
+     */
+    public double getDifficulty() {
+        return pushes * Math.log10(nodes + 10);
+    }
+
+    @Override
+    public String toString() {
+        return level;
+    }
+}
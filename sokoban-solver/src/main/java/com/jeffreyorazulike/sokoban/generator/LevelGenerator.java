@@ -0,0 +1,486 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.generator;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.solver.Solution;
+import com.jeffreyorazulike.sokoban.solver.Solver;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Makes new levels of a size and number of baggage. A candidate is a room
+ * of random walls with the baggage put on the areas, then pulled away by a
+ * player walking backwards, so every candidate can be won. The solver then
+ * finds its fewest pushes, candidates it can not solve within the budget or
+ * that are too short are dropped, and so are copies of a level already
+ * made</p>
+ *
+ * <p>
+ * Candidates are made and solved on every core, every candidate comes from
+ * a seed of its own so a run can be repeated</p>
+ *
+ * <p>
+ * Usage: {@code LevelGenerator rows columns baggage count [file]}, the
+ * levels are written as an XSB collection to the file or the standard
+ * output</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class LevelGenerator {
+
+    private static final char WALL = '#', FLOOR = ' ';
+
+    // candidates tried for every level asked for before giving up
+    private static final int ATTEMPTS = 1000;
+
+    private final int rows, columns, boxes;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private int minimumPushes;
+
+    private long nodeLimit = 200_000;
+
+    private double wallDensity = 0.2;
+
+    private long seed = System.nanoTime();
+
+    /**
+     *
+     * @param rows    the rows of the level, the outer walls included
+     * @param columns the columns of the level, the outer walls included
+     * @param boxes   the number of baggage and areas
+     */
+    public LevelGenerator(int rows, int columns, int boxes) {
+        if (boxes < 1 || rows < 3 || columns < 3 || (rows - 2) * (columns - 2) < boxes * 3 + 1)
+            throw new IllegalArgumentException("A " + rows + " by " + columns + " level has no room for " + boxes + " baggage");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.boxes = boxes;
+        minimumPushes = boxes * 2;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public int getMinimumPushes() {
+        return minimumPushes;
+    }
+
+    /**
+     *
+     * @param minimumPushes levels won in fewer pushes are dropped, two per
+     *                      baggage by default
+     */
+    public void setMinimumPushes(int minimumPushes) {
+        this.minimumPushes = minimumPushes;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     *
+     * @param nodeLimit the positions the solver may expand for a candidate,
+     *                  a candidate it can not solve within them is dropped
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public double getWallDensity() {
+        return wallDensity;
+    }
+
+    /**
+     *
+     * @param wallDensity the chance of a cell inside the room being a wall
+     */
+    public void setWallDensity(double wallDensity) {
+        this.wallDensity = wallDensity;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     *
+     * @param seed the seed of the first candidate, the next candidates use
+     *             the seeds after it
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     *
+     * @param count the number of levels to make
+     *
+     * @return the levels, fewer than asked for if too many candidates were
+     *         dropped
+     */
+    public List<GeneratedLevel> generate(int count) {
+        List<GeneratedLevel> levels = new ArrayList<>(count);
+        generate(count, levels::add);
+        return levels;
+    }
+
+    /**
+     * Makes levels on {@link #getThreads()} threads, blocking until they are
+     * made
+     *
+     * @param count the number of levels to make
+     * @param sink  given every level as it is made, one at a time
+     *
+     * @return the number of levels made, fewer than asked for if too many
+     *         candidates were dropped or the calling thread was interrupted
+     */
+    public int generate(int count, Consumer<GeneratedLevel> sink) {
+        AtomicLong next = new AtomicLong(seed);
+        AtomicInteger made = new AtomicInteger();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        long last = seed + (long) count * ATTEMPTS;
+
+        List<Callable<Void>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; ++i)
+            workers.add(() -> {
+                for (long candidate; made.get() < count && (candidate = next.getAndIncrement()) < last;) {
+                    if (Thread.currentThread().isInterrupted())
+                        break;
+
+                    GeneratedLevel level = generate(candidate);
+                    if (level == null || !seen.add(level.getKey()))
+                        continue;
+
+                    synchronized (sink) {
+                        if (made.get() < count) {
+                            made.incrementAndGet();
+                            sink.accept(level);
+                        }
+                    }
+                }
+                return null;
+            });
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (Future<Void> worker : pool.invokeAll(workers))
+                worker.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return made.get();
+    }
+
+    /**
+     * Makes and grades one candidate
+     *
+     * @param seed the seed of the candidate
+     *
+     * @return the level, or null if the candidate was dropped
+     */
+    public GeneratedLevel generate(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] offsets = {-1, -columns, 1, columns};
+
+        char[] grid = room(random);
+        int[] floor = cells(grid);
+        if (floor.length < boxes * 3 + 1)
+            return null;
+
+        // the areas and the baggage on them, the player on a free cell
+        boolean[] goal = new boolean[grid.length], box = new boolean[grid.length];
+        for (int i = 0; i < boxes; ++i) {
+            int pick = i + random.nextInt(floor.length - i), cell = floor[pick];
+
+            floor[pick] = floor[i];
+            floor[i] = cell;
+            goal[cell] = box[cell] = true;
+        }
+        int player = floor[boxes + random.nextInt(floor.length - boxes)];
+
+        // walks backwards, pulling the baggage behind the player now and then
+        for (int step = 0, steps = boxes * 60 + random.nextInt(boxes * 60); step < steps; ++step) {
+            int offset = offsets[random.nextInt(4)], to = player + offset, behind = player - offset;
+
+            if (grid[to] == WALL || box[to])
+                continue;
+
+            if (box[behind] && random.nextInt(3) != 0) {
+                box[behind] = false;
+                box[player] = true;
+            }
+
+            player = to;
+        }
+
+        int placed = 0;
+        for (int cell : floor)
+            if (box[cell] && goal[cell])
+                ++placed;
+        if (placed == boxes)
+            return null;
+
+        String level = level(grid, goal, box, player);
+
+        Solver solver = new Solver(Board.parse(level));
+        solver.setNodeLimit(nodeLimit);
+        solver.setTableMemory(8L << 20);
+
+        Solution solution = solver.solve();
+        if (!solution.isSolved() || solution.getPushCount() < minimumPushes)
+            return null;
+
+        return new GeneratedLevel(level, key(grid, goal, box, player), seed, solution.getPushCount(), solution.getMoveCount(), solution.getNodesExpanded());
+    }
+
+    // random walls inside the outer walls, only the largest open part is kept
+    private char[] room(SplittableRandom random) {
+        char[] grid = new char[rows * columns];
+
+        for (int row = 0; row < rows; ++row)
+            for (int column = 0; column < columns; ++column) {
+                boolean edge = row == 0 || column == 0 || row == rows - 1 || column == columns - 1;
+                grid[row * columns + column] = edge || random.nextDouble() < wallDensity ? WALL : FLOOR;
+            }
+
+        int[] region = new int[grid.length], stack = new int[grid.length];
+        int best = 0, bestSize = 0;
+
+        for (int start = 0, label = 0; start < grid.length; ++start) {
+            if (grid[start] == WALL || region[start] != 0)
+                continue;
+
+            int size = 0, top = 0;
+            region[start] = ++label;
+            stack[top++] = start;
+
+            while (top > 0) {
+                int cell = stack[--top];
+                ++size;
+
+                for (int next : new int[]{cell - 1, cell + 1, cell - columns, cell + columns})
+                    if (grid[next] != WALL && region[next] == 0) {
+                        region[next] = label;
+                        stack[top++] = next;
+                    }
+            }
+
+            if (size > bestSize) {
+                best = label;
+                bestSize = size;
+            }
+        }
+
+        for (int cell = 0; cell < grid.length; ++cell)
+            if (grid[cell] != WALL && region[cell] != best)
+                grid[cell] = WALL;
+
+        return grid;
+    }
+
+    private static int[] cells(char[] grid) {
+        int count = 0;
+        for (char cell : grid)
+            if (cell != WALL)
+                ++count;
+
+        int[] cells = new int[count];
+        for (int cell = 0, i = 0; cell < grid.length; ++cell)
+            if (grid[cell] != WALL)
+                cells[i++] = cell;
+
+        return cells;
+    }
+
+    private static char character(char[] grid, boolean[] goal, boolean[] box, int player, int cell) {
+        if (grid[cell] == WALL)
+            return WALL;
+        if (box[cell])
+            return goal[cell] ? '*' : '$';
+        if (cell == player)
+            return goal[cell] ? '+' : '@';
+        return goal[cell] ? '.' : FLOOR;
+    }
+
+    // the level with the walls that touch no floor left out
+    private String level(char[] grid, boolean[] goal, boolean[] box, int player) {
+        StringBuilder level = new StringBuilder(grid.length + rows);
+
+        for (int row = 0; row < rows; ++row) {
+            int length = level.length();
+
+            for (int column = 0; column < columns; ++column) {
+                int cell = row * columns + column;
+                level.append(grid[cell] == WALL && !touchesFloor(grid, row, column) ? FLOOR : character(grid, goal, box, player, cell));
+            }
+
+            // the spaces at the end of a row are left out, a row of nothing but spaces too
+            int end = level.length();
+            while (end > length && level.charAt(end - 1) == FLOOR)
+                --end;
+            level.setLength(end);
+            if (end > length)
+                level.append('\n');
+        }
+
+        return level.toString();
+    }
+
+    private boolean touchesFloor(char[] grid, int row, int column) {
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); ++r)
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); ++c)
+                if (grid[r * columns + c] != WALL)
+                    return true;
+        return false;
+    }
+
+    /**
+     * The smallest of the eight rotations and mirrors of the level, with the
+     * player moved to the first cell of its area
+     */
+    private String key(char[] grid, boolean[] goal, boolean[] box, int player) {
+        player = normalize(grid, box, player);
+
+        String smallest = null;
+        char[] key = new char[grid.length];
+
+        for (int symmetry = 0; symmetry < 8; ++symmetry) {
+            boolean transpose = (symmetry & 4) != 0;
+            int height = transpose ? columns : rows, width = transpose ? rows : columns;
+
+            for (int row = 0; row < height; ++row)
+                for (int column = 0; column < width; ++column) {
+                    int r = transpose ? column : row, c = transpose ? row : column;
+
+                    if ((symmetry & 1) != 0)
+                        r = rows - 1 - r;
+                    if ((symmetry & 2) != 0)
+                        c = columns - 1 - c;
+
+                    key[row * width + column] = character(grid, goal, box, player, r * columns + c);
+                }
+
+            String candidate = width + ":" + new String(key);
+            if (smallest == null || candidate.compareTo(smallest) < 0)
+                smallest = candidate;
+        }
+
+        return smallest;
+    }
+
+    private int normalize(char[] grid, boolean[] box, int player) {
+        boolean[] seen = new boolean[grid.length];
+        int[] stack = new int[grid.length];
+        int top = 0, smallest = player;
+
+        seen[player] = true;
+        stack[top++] = player;
+
+        while (top > 0) {
+            int cell = stack[--top];
+            smallest = Math.min(smallest, cell);
+
+            for (int next : new int[]{cell - 1, cell + 1, cell - columns, cell + columns})
+                if (!seen[next] && grid[next] != WALL && !box[next]) {
+                    seen[next] = true;
+                    stack[top++] = next;
+                }
+        }
+
+        return smallest;
+    }
+
+    /**
+     * Writes a level as a level of an XSB collection
+     *
+     * @param out   where to write
+     * @param level the level
+     * @param title the title of the level
+     *
+     * @throws IOException if the level could not be written
+     */
+    public static void write(Appendable out, GeneratedLevel level, String title) throws IOException {
+        out.append(level.getLevel())
+                .append("Title: ").append(title).append('\n')
+                .append("Pushes: ").append(String.valueOf(level.getPushes())).append('\n')
+                .append("Moves: ").append(String.valueOf(level.getMoves())).append('\n')
+                .append("Seed: ").append(String.valueOf(level.getSeed())).append('\n')
+                .append('\n');
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: LevelGenerator rows columns baggage count [file]");
+            System.exit(2);
+        }
+
+        LevelGenerator generator = new LevelGenerator(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        int count = Integer.parseInt(args[3]);
+        long start = System.nanoTime();
+
+        try (Writer out = args.length > 4 ? Files.newBufferedWriter(Paths.get(args[4]), StandardCharsets.UTF_8)
+                : new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+            AtomicInteger number = new AtomicInteger();
+
+            int made = generator.generate(count, level -> {
+                try {
+                    write(out, level, "Generated " + number.incrementAndGet());
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("%d levels in %.1f s, %.0f per hour%n", made, seconds, made / seconds * 3600);
+        }
+    }
+}
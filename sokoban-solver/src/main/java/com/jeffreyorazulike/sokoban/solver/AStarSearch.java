@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+
+/**
+ * <p>
+ * A* over pushes, every generated position is kept so the search is fast
+ * but bounded by memory</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class AStarSearch extends Search {
+
+    // the node of every position already seen, keyed by its zobrist hash
+    private final TranspositionTable table;
+
+    private final OpenList open = new OpenList();
+
+    AStarSearch(Board board, Solver settings) {
+        super(board, settings);
+        table = TranspositionTable.withMemory(tableMemory);
+    }
+
+    @Override
+    int[] search() {
+        int boxCount = board.getBoxCount();
+        int[] state = new int[boxCount], child = new int[boxCount];
+        int[] pushes = new int[boxCount * 4], costs = new int[boxCount * 4];
+
+        NodeStore nodes = new NodeStore(boxCount);
+
+        board.boxPositions(state);
+
+        int estimate = heuristic.estimate(state, boxCount);
+        if (estimate == Heuristic.DEAD) {
+            setStatus(Solution.Status.UNSOLVABLE);
+            return null;
+        }
+
+        int root = nodes.add(NodeStore.ROOT, 0, 0, countMoves ? board.getPlayer() : generator.normalize(), state);
+        table.put(generator.hash(nodes.player(root)), root, 0);
+        open.add(root, OpenList.priority(estimate, 0));
+
+        while (!open.isEmpty()) {
+            long priority = open.peek();
+            int node = open.poll(), cost = nodes.cost(node);
+
+            // skip entries left behind when a cheaper path to the node was found
+            if (Integer.MAX_VALUE - (int) priority != cost)
+                continue;
+
+            nodes.boxes(node, state);
+            board.setBoxes(state, boxCount);
+            board.setPlayer(nodes.player(node));
+
+            if (board.isSolved()) {
+                setStatus(Solution.Status.SOLVED);
+                return nodes.path(node);
+            }
+
+            ++expanded;
+            if (!withinBudget(nodes.memory() + open.memory() + table.memory()))
+                return null;
+
+            int count = generator.generate(pushes, 0), player = board.getPlayer();
+
+            for (int i = 0; i < count; ++i)
+                costs[i] = cost + generator.cost(pushes[i], countMoves);
+
+            for (int i = 0; i < count; ++i) {
+                generator.apply(pushes[i]);
+                board.boxPositions(child);
+
+                estimate = heuristic.estimate(child, boxCount);
+
+                if (estimate != Heuristic.DEAD) {
+                    int childPlayer = countMoves ? board.getPlayer() : generator.normalize();
+                    long key = generator.hash(childPlayer), entry = table.get(key);
+                    int known = entry == TranspositionTable.MISSING ? -1 : TranspositionTable.data(entry);
+
+                    // a replaced entry or a hash collision is treated as a new position
+                    if (known == -1 || !nodes.matches(known, childPlayer, child)) {
+                        int added = nodes.add(node, pushes[i], costs[i], childPlayer, child);
+                        table.put(key, added, costs[i]);
+                        open.add(added, OpenList.priority(costs[i] + estimate, costs[i]));
+                    } else if (costs[i] < nodes.cost(known)) {
+                        table.put(key, known, costs[i]);
+                        nodes.update(known, node, pushes[i], costs[i]);
+                        open.add(known, OpenList.priority(costs[i] + estimate, costs[i]));
+                    }
+                }
+
+                generator.revert(pushes[i], player);
+            }
+        }
+
+        setStatus(Solution.Status.UNSOLVABLE);
+        return null;
+    }
+
+    @Override
+    protected long getOpenSize() {
+        return open.size();
+    }
+
+    @Override
+    protected double getTableHitRate() {
+        return table.getHitRate();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Adds up the pushes of every box to its nearest goal, boxes may share a
+ * goal. It is weaker than {@link MatchingHeuristic} but its table has one
+ * value per cell, so it is used on levels too large for a table per goal</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class DistanceHeuristic implements Heuristic {
+
+    // the largest estimate, a search can still add the pushes made to it
+    private static final int LIMIT = Integer.MAX_VALUE / 2;
+
+    // the pushes a lone box needs from a cell to the nearest goal
+    private final int[] distances;
+    private final int goalCount;
+
+    DistanceHeuristic(Board board) {
+        distances = distances(board);
+        goalCount = board.getGoalCount();
+    }
+
+    /**
+     * Pulls a lone box away from all the goals at once
+     *
+     * @return the distance of every cell to its nearest goal, -1 if no goal
+     *         can be reached from the cell
+     */
+    private static int[] distances(Board board) {
+        int size = board.size(), head = 0, tail = 0;
+        int[] queue = new int[size], distances = new int[size];
+
+        Arrays.fill(distances, -1);
+        for (int cell = 0; cell < size; ++cell)
+            if (board.isGoal(cell)) {
+                distances[cell] = 0;
+                queue[tail++] = cell;
+            }
+
+        while (head < tail) {
+            int cell = queue[head++];
+
+            for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction) {
+                int offset = board.offset(direction), from = cell + offset;
+
+                if (distances[from] == -1 && !board.isWall(from) && !board.isWall(from + offset)) {
+                    distances[from] = distances[cell] + 1;
+                    queue[tail++] = from;
+                }
+            }
+        }
+
+        return distances;
+    }
+
+    @Override
+    public int estimate(int[] boxes, int count) {
+        if (count > goalCount)
+            return DEAD;
+
+        long estimate = 0;
+
+        for (int i = 0; i < count; ++i) {
+            int distance = distances[boxes[i]];
+
+            if (distance == -1)
+                return DEAD;
+
+            estimate += distance;
+        }
+
+        return (int) Math.min(estimate, LIMIT);
+    }
+}
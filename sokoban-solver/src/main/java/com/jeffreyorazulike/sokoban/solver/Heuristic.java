@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+/**
+ * <p>
+ * Estimates the pushes still needed to solve a position, the estimate must
+ * never be more than the real number of pushes</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+interface Heuristic {
+
+    /**
+     * Returned when the boxes can never all reach a goal
+     */
+    int DEAD = Integer.MAX_VALUE;
+
+    /**
+     *
+     * @param boxes the cells holding a box
+     * @param count the number of values of boxes to use
+     *
+     * @return a lower bound of the pushes needed or {@link #DEAD}
+     */
+    int estimate(int[] boxes, int count);
+
+    /**
+     *
+     * @return a heuristic of the same level for another thread, the tables
+     *         of the level are shared
+     */
+    default Heuristic copy() {
+        return this;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Iterative deepening A* over pushes. Only the current path and a fixed size
+ * transposition table are kept</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class IdaStarSearch extends Search {
+
+    private final int boxCount;
+    private final int[] state;
+
+    // the pushes and their costs of every position on the current path
+    private int[] pushes, costs;
+
+    // the pushes made to reach the current position
+    private int[] path;
+    private int length;
+
+    // the cheapest cost each position was reached with in the iteration
+    private final TranspositionTable table;
+
+    private int bound, nextBound, iteration;
+
+    IdaStarSearch(Board board, Solver settings) {
+        super(board, settings);
+        table = TranspositionTable.withMemory(tableMemory);
+
+        boxCount = board.getBoxCount();
+        state = new int[boxCount];
+        pushes = new int[boxCount * 64];
+        costs = new int[pushes.length];
+        path = new int[64];
+    }
+
+    @Override
+    int[] search() {
+        board.boxPositions(state);
+        bound = heuristic.estimate(state, boxCount);
+
+        while (bound != Heuristic.DEAD) {
+            nextBound = Heuristic.DEAD;
+            ++iteration;
+
+            if (search(0, 0, 0)) {
+                setStatus(Solution.Status.SOLVED);
+                return Arrays.copyOf(path, length);
+            }
+
+            if (getStatus() != null)
+                return null;
+
+            bound = nextBound;
+        }
+
+        setStatus(Solution.Status.UNSOLVABLE);
+        return null;
+    }
+
+    private boolean search(int depth, int cost, int offset) {
+        board.boxPositions(state);
+
+        int estimate = heuristic.estimate(state, boxCount);
+
+        if (estimate == Heuristic.DEAD)
+            return false;
+
+        int player = board.getPlayer();
+        long key = generator.hash(countMoves ? player : generator.normalize()), entry = table.get(key);
+
+        // a position already reached as cheaply in this iteration does not
+        // move the next bound, so an unsolvable level runs out of bounds
+        if (entry != TranspositionTable.MISSING && TranspositionTable.data(entry) == iteration && TranspositionTable.cost(entry) <= cost)
+            return false;
+
+        if (cost + estimate > bound) {
+            nextBound = Math.min(nextBound, cost + estimate);
+            return false;
+        }
+
+        if (board.isSolved()) {
+            length = depth;
+            return true;
+        }
+
+        table.put(key, iteration, cost);
+
+        if (offset + boxCount * 4 > pushes.length) {
+            pushes = Arrays.copyOf(pushes, pushes.length << 1);
+            costs = Arrays.copyOf(costs, pushes.length);
+        }
+
+        int count = generator.generate(pushes, offset);
+
+        ++expanded;
+        if (!withinBudget(table.memory() + pushes.length * 8L + path.length * 4L))
+            return false;
+
+        for (int i = 0; i < count; ++i)
+            costs[offset + i] = cost + generator.cost(pushes[offset + i], countMoves);
+
+        if (depth == path.length)
+            path = Arrays.copyOf(path, depth << 1);
+
+        for (int i = 0; i < count; ++i) {
+            int push = pushes[offset + i];
+
+            generator.apply(push);
+            path[depth] = push;
+
+            if (search(depth + 1, costs[offset + i], offset + count))
+                return true;
+
+            generator.revert(push, player);
+
+            if (getStatus() != null)
+                return false;
+        }
+
+        return false;
+    }
+
+    @Override
+    protected double getTableHitRate() {
+        return table.getHitRate();
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Gives every box its own goal so that the pushes of all the boxes, ignoring
+ * each other, add up to the least possible. The assignment is kept between
+ * calls and only the rows of the boxes that moved are solved again</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class MatchingHeuristic implements Heuristic {
+
+    /**
+     * The most values the distance table may hold, 64MB. A larger level is
+     * estimated by {@link DistanceHeuristic}
+     */
+    static final long TABLE_LIMIT = 1 << 24;
+
+    // the pushes a lone box needs from a cell to a goal, at goal * size + cell
+    private final int[] distances;
+    private final int size, goalCount;
+
+    // the cost of a box that can not reach a goal, more than any full assignment
+    private final int infinity;
+
+    // the cell of the box of every row, rows and columns count from one
+    private final int[] rows;
+    private int rowCount;
+
+    // the potentials of the rows and columns and the row assigned to each column
+    private final int[] rowPotential, columnPotential, assigned;
+
+    // the buffers of one augmentation
+    private final int[] slack, way;
+    private final boolean[] used;
+
+    // the boxes of the last estimate in ascending order and the rows to solve again
+    private final int[] last, moved;
+
+    /**
+     *
+     * @param board the level to estimate
+     *
+     * @throws IllegalArgumentException if the distance table of the level
+     *                                  would be larger than
+     *                                  {@link #TABLE_LIMIT}
+     */
+    MatchingHeuristic(Board board) {
+        this(distances(board), board.size(), board.getGoalCount());
+    }
+
+    /**
+     *
+     * @param board the level to estimate
+     *
+     * @return true if the distance table of the level is small enough
+     */
+    static boolean fits(Board board) {
+        return (long) board.getGoalCount() * board.size() <= TABLE_LIMIT;
+    }
+
+    private MatchingHeuristic(int[] distances, int size, int goalCount) {
+        this.distances = distances;
+        this.size = size;
+        this.goalCount = goalCount;
+        // a full assignment costs at most size for each goal, which fits once the table does
+        infinity = Math.toIntExact((long) goalCount * size + 1);
+
+        rows = new int[goalCount + 1];
+        rowPotential = new int[goalCount + 1];
+        columnPotential = new int[goalCount + 1];
+        assigned = new int[goalCount + 1];
+        slack = new int[goalCount + 1];
+        way = new int[goalCount + 1];
+        used = new boolean[goalCount + 1];
+        last = new int[goalCount];
+        moved = new int[goalCount];
+    }
+
+    /**
+     * Pulls a lone box away from every goal, the number of pulls to a cell
+     * is the number of pushes from it back to the goal
+     *
+     * @return the distance of every cell to every goal, -1 if the goal can
+     *         not be reached from the cell
+     */
+    private static int[] distances(Board board) {
+        if (!fits(board))
+            throw new IllegalArgumentException(board.getGoalCount() + " goals on " + board.size() + " cells need too large a table");
+
+        int size = board.size(), goalCount = board.getGoalCount();
+        int[] goals = new int[goalCount], queue = new int[size], distances = new int[goalCount * size];
+
+        board.goalPositions(goals);
+        Arrays.fill(distances, -1);
+
+        for (int goal = 0; goal < goalCount; ++goal) {
+            int base = goal * size, head = 0, tail = 0;
+
+            distances[base + goals[goal]] = 0;
+            queue[tail++] = goals[goal];
+
+            while (head < tail) {
+                int cell = queue[head++];
+
+                for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction) {
+                    int offset = board.offset(direction), from = cell + offset;
+
+                    if (distances[base + from] == -1 && !board.isWall(from) && !board.isWall(from + offset)) {
+                        distances[base + from] = distances[base + cell] + 1;
+                        queue[tail++] = from;
+                    }
+                }
+            }
+        }
+
+        return distances;
+    }
+
+    @Override
+    public Heuristic copy() {
+        return new MatchingHeuristic(distances, size, goalCount);
+    }
+
+    @Override
+    public int estimate(int[] boxes, int count) {
+        if (count > goalCount)
+            return DEAD;
+
+        int changes = count == goalCount && count == rowCount ? changes(boxes, count) : -1;
+
+        if (changes == -1) {
+            // too much changed, the assignment is built again from nothing
+            Arrays.fill(rowPotential, 0);
+            Arrays.fill(columnPotential, 0);
+            Arrays.fill(assigned, 0);
+
+            rowCount = count;
+
+            for (int row = 1; row <= count; ++row) {
+                rows[row] = boxes[row - 1];
+                augment(row);
+            }
+        } else {
+            // the rows are taken out of the assignment, a zero potential keeps them feasible
+            for (int column = 1; column <= goalCount; ++column)
+                for (int i = 0; i < changes; ++i)
+                    if (assigned[column] == moved[i])
+                        assigned[column] = 0;
+
+            for (int i = 0; i < changes; ++i) {
+                rowPotential[moved[i]] = 0;
+                augment(moved[i]);
+            }
+        }
+
+        System.arraycopy(boxes, 0, last, 0, count);
+
+        int estimate = 0;
+
+        for (int column = 1; column <= goalCount; ++column) {
+            int row = assigned[column];
+
+            if (row == 0)
+                continue;
+
+            int cost = cost(row, column);
+
+            if (cost == infinity)
+                return DEAD;
+
+            estimate += cost;
+        }
+
+        return estimate;
+    }
+
+    /**
+     * Finds the boxes that moved since the last estimate, both arrays are in
+     * ascending order. The rows of the boxes that left a cell are given the
+     * cells the new boxes arrived at
+     *
+     * @return the number of rows written to moved
+     */
+    private int changes(int[] boxes, int count) {
+        int removed = 0, added = 0, i = 0, j = 0;
+
+        // the cells left are kept in moved, the cells arrived at in slack
+        while (i < count || j < count) {
+            if (j == count || i < count && last[i] < boxes[j])
+                moved[removed++] = last[i++];
+            else if (i == count || boxes[j] < last[i])
+                slack[added++] = boxes[j++];
+            else {
+                ++i;
+                ++j;
+            }
+
+            if (removed > count / 2)
+                return -1;
+        }
+
+        for (int change = 0; change < removed; ++change) {
+            int row = 1;
+
+            while (rows[row] != moved[change])
+                ++row;
+
+            rows[row] = slack[change];
+            moved[change] = row;
+        }
+
+        return removed;
+    }
+
+    private int cost(int row, int column) {
+        int distance = distances[(column - 1) * size + rows[row]];
+        return distance == -1 ? infinity : distance;
+    }
+
+    /**
+     * Adds a row to the assignment along a shortest augmenting path, the
+     * potentials of the other rows and columns stay feasible
+     */
+    private void augment(int row) {
+        Arrays.fill(slack, Integer.MAX_VALUE);
+        Arrays.fill(used, false);
+
+        int column = 0;
+        assigned[0] = row;
+
+        do {
+            used[column] = true;
+
+            int current = assigned[column], delta = Integer.MAX_VALUE, next = 0;
+
+            for (int other = 1; other <= goalCount; ++other) {
+                if (used[other])
+                    continue;
+
+                int reduced = cost(current, other) - rowPotential[current] - columnPotential[other];
+
+                if (reduced < slack[other]) {
+                    slack[other] = reduced;
+                    way[other] = column;
+                }
+
+                if (slack[other] < delta) {
+                    delta = slack[other];
+                    next = other;
+                }
+            }
+
+            for (int other = 0; other <= goalCount; ++other)
+                if (used[other]) {
+                    rowPotential[assigned[other]] += delta;
+                    columnPotential[other] -= delta;
+                } else
+                    slack[other] -= delta;
+
+            column = next;
+        } while (assigned[column] != 0);
+
+        // the path is walked back, shifting every row on it to its new column
+        do {
+            int previous = way[column];
+            assigned[column] = assigned[previous];
+            column = previous;
+        } while (column != 0);
+    }
+}
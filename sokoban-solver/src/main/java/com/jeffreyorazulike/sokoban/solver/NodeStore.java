@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Holds the positions generated by a search in parallel primitive arrays. A
+ * node is an int that indexes the arrays</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class NodeStore {
+
+    /**
+     * The parent of the first position of a search
+     */
+    static final int ROOT = -1;
+
+    private final int boxCount;
+
+    private int[] parents, pushes, costs, players, boxes;
+
+    private int size;
+
+    NodeStore(int boxCount) {
+        this.boxCount = boxCount;
+
+        parents = new int[1024];
+        pushes = new int[1024];
+        costs = new int[1024];
+        players = new int[1024];
+        boxes = new int[1024 * boxCount];
+    }
+
+    /**
+     *
+     * @param parent the node the position was generated from
+     * @param push   the push that led to the position
+     * @param cost   the moves or pushes made since the first position
+     * @param player the cell standing for the player
+     * @param state  the cells holding a box
+     *
+     * @return the new node
+     */
+    int add(int parent, int push, int cost, int player, int[] state) {
+        reserve(1);
+        set(size, parent, push, cost, player, state);
+
+        return size++;
+    }
+
+    /**
+     * Makes room for nodes past the last one, the arrays are not replaced
+     * until the room is used by {@link #set} and {@link #setSize(int)}
+     *
+     * @param count the number of nodes to make room for
+     */
+    void reserve(int count) {
+        if (size + count <= parents.length)
+            return;
+
+        int capacity = Math.max(size + count, size + (size >> 1));
+
+        parents = Arrays.copyOf(parents, capacity);
+        pushes = Arrays.copyOf(pushes, capacity);
+        costs = Arrays.copyOf(costs, capacity);
+        players = Arrays.copyOf(players, capacity);
+        boxes = Arrays.copyOf(boxes, capacity * boxCount);
+    }
+
+    /**
+     * Writes a node in the room made by {@link #reserve(int)}, threads may
+     * write different nodes at the same time
+     */
+    void set(int node, int parent, int push, int cost, int player, int[] state) {
+        parents[node] = parent;
+        pushes[node] = push;
+        costs[node] = cost;
+        players[node] = player;
+        System.arraycopy(state, 0, boxes, node * boxCount, boxCount);
+    }
+
+    /**
+     * Makes a node reachable through a cheaper path
+     */
+    void update(int node, int parent, int push, int cost) {
+        parents[node] = parent;
+        pushes[node] = push;
+        costs[node] = cost;
+    }
+
+    int parent(int node) {
+        return parents[node];
+    }
+
+    int push(int node) {
+        return pushes[node];
+    }
+
+    int cost(int node) {
+        return costs[node];
+    }
+
+    int player(int node) {
+        return players[node];
+    }
+
+    /**
+     * Copies the boxes of a node
+     *
+     * @return the number of boxes copied
+     */
+    int boxes(int node, int[] into) {
+        System.arraycopy(boxes, node * boxCount, into, 0, boxCount);
+        return boxCount;
+    }
+
+    /**
+     *
+     * @return true if the node holds the position
+     */
+    boolean matches(int node, int player, int[] state) {
+        if (players[node] != player)
+            return false;
+
+        for (int i = 0, base = node * boxCount; i < boxCount; ++i)
+            if (boxes[base + i] != state[i])
+                return false;
+
+        return true;
+    }
+
+    /**
+     *
+     * @return the pushes leading from the first position to the node
+     */
+    int[] path(int node) {
+        int length = 0;
+
+        for (int current = node; parents[current] != ROOT; current = parents[current])
+            ++length;
+
+        int[] path = new int[length];
+
+        for (int current = node; parents[current] != ROOT; current = parents[current])
+            path[--length] = pushes[current];
+
+        return path;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @param size the number of nodes written with {@link #set}, counted
+     *             from the first node
+     */
+    void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     *
+     * @return the bytes held by the arrays
+     */
+    long memory() {
+        return (long) parents.length * (16 + 4 * boxCount);
+    }
+}
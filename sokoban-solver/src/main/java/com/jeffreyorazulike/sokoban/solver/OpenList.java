@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A binary heap of nodes ordered by a long priority, the smallest priority
+ * is removed first</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class OpenList {
+
+    private long[] priorities = new long[1024];
+    private int[] nodes = new int[1024];
+    private int size;
+
+    /**
+     *
+     * @param estimate the estimated cost of a solution through the node
+     * @param cost     the cost already paid to reach the node
+     *
+     * @return a priority that prefers small estimates and then deep nodes
+     */
+    static long priority(int estimate, int cost) {
+        return (long) estimate << 32 | (Integer.MAX_VALUE - cost);
+    }
+
+    static int estimate(long priority) {
+        return (int) (priority >>> 32);
+    }
+
+    void add(int node, long priority) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size << 1);
+            priorities = Arrays.copyOf(priorities, size << 1);
+        }
+
+        int index = size++;
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+
+            if (priorities[parent] <= priority)
+                break;
+
+            nodes[index] = nodes[parent];
+            priorities[index] = priorities[parent];
+            index = parent;
+        }
+
+        nodes[index] = node;
+        priorities[index] = priority;
+    }
+
+    /**
+     *
+     * @return the priority of the node {@link #poll()} returns next
+     */
+    long peek() {
+        return priorities[0];
+    }
+
+    int poll() {
+        int node = nodes[0];
+        int last = nodes[--size];
+        long priority = priorities[size];
+        int index = 0;
+
+        while (true) {
+            int child = (index << 1) + 1;
+
+            if (child >= size)
+                break;
+            if (child + 1 < size && priorities[child + 1] < priorities[child])
+                ++child;
+            if (priorities[child] >= priority)
+                break;
+
+            nodes[index] = nodes[child];
+            priorities[index] = priorities[child];
+            index = child;
+        }
+
+        nodes[index] = last;
+        priorities[index] = priority;
+
+        return node;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memory() {
+        return nodes.length * 12L;
+    }
+}
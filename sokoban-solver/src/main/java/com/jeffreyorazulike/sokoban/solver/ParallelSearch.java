@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * A* that expands the best open positions in batches spread over a
+ * {@link ForkJoinPool}. A batch only holds positions of the same estimate
+ * and depth, which {@link AStarSearch} would expand one after the other, so
+ * the batches add few expansions to those of the serial search</p>
+ *
+ * <p>
+ * The tasks check the children of their positions against a
+ * {@link StripedTranspositionTable} and add the new and cheaper ones to the
+ * node store themselves, only the open list is filled on the calling thread.
+ * In deterministic mode the tasks only generate the children and the calling
+ * thread adds them in the order of the batch, so the solution does not
+ * depend on the threads. A solved child is kept as the best solution so far,
+ * it is returned once no open position can lead to a cheaper one</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class ParallelSearch extends Search {
+
+    // the positions expanded by one task and the tasks of a batch in deterministic mode. An expansion
+    // takes tens of microseconds or more, so a chunk costs far more than handing it to the pool
+    private static final int CHUNK = 4, TASKS = 4;
+
+    private final ForkJoinPool pool;
+    private final boolean deterministic;
+
+    private final int boxCount;
+    private final NodeStore nodes;
+    private final StripedTranspositionTable table;
+
+    // the next node the tasks give a position, the store has room for a batch
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final OpenList open = new OpenList();
+
+    // the task expanding a chunk of the batch uses the worker of the same index
+    private final Worker[] workers;
+    private final Chunk[] chunks;
+
+    // the cheapest solved node found so far, -1 if none
+    private int goal = -1, goalCost = Integer.MAX_VALUE;
+
+    ParallelSearch(Board board, Solver settings, ForkJoinPool pool) {
+        super(board, settings);
+
+        this.pool = pool;
+        deterministic = settings.isDeterministic();
+
+        boxCount = board.getBoxCount();
+        nodes = new NodeStore(boxCount);
+        table = new StripedTranspositionTable(tableMemory);
+
+        // the size of the batches must not depend on the pool for the solution not to
+        int tasks = deterministic ? TASKS : Math.max(TASKS, pool.getParallelism());
+
+        workers = new Worker[tasks];
+        chunks = new Chunk[tasks];
+        for (int i = 0; i < tasks; ++i)
+            chunks[i] = new Chunk();
+    }
+
+    @Override
+    int[] search() {
+        int[] state = new int[boxCount];
+        board.boxPositions(state);
+
+        int estimate = heuristic.estimate(state, boxCount);
+        if (estimate == Heuristic.DEAD) {
+            setStatus(Solution.Status.UNSOLVABLE);
+            return null;
+        }
+
+        if (board.isSolved()) {
+            setStatus(Solution.Status.SOLVED);
+            return new int[0];
+        }
+
+        int player = countMoves ? board.getPlayer() : generator.normalize();
+        int root = nodes.add(NodeStore.ROOT, 0, 0, player, state);
+
+        long key = generator.hash(player);
+        table.stripe(key).put(key, root, 0);
+        open.add(root, OpenList.priority(estimate, 0));
+
+        int[] batch = new int[chunks.length * CHUNK];
+
+        while (true) {
+            int size = 0;
+            long first = 0;
+
+            while (size < batch.length && !open.isEmpty()) {
+                long priority = open.peek();
+
+                // nothing left can be cheaper than the solution found, and a batch keeps to one priority
+                if (OpenList.estimate(priority) >= goalCost || size > 0 && priority != first)
+                    break;
+
+                int node = open.poll();
+
+                // skip entries left behind when a cheaper path to the node was found
+                if (Integer.MAX_VALUE - (int) priority == nodes.cost(node)) {
+                    batch[size++] = node;
+                    first = priority;
+                }
+            }
+
+            if (size == 0)
+                break;
+
+            expanded += size;
+
+            nodes.reserve(size * boxCount * 4);
+            next.set(nodes.size());
+
+            if (!expand(batch, size))
+                return null;
+
+            int used = (size + CHUNK - 1) / CHUNK;
+
+            if (deterministic)
+                for (int i = 0; i < used; ++i)
+                    chunks[i].insert();
+
+            nodes.setSize(next.get());
+
+            for (int i = 0; i < used; ++i)
+                merge(chunks[i]);
+
+            long memory = nodes.memory() + open.memory() + table.memory();
+            for (Chunk chunk : chunks)
+                memory += chunk.memory();
+
+            if (!withinBudget(memory))
+                return null;
+        }
+
+        if (goal == -1) {
+            setStatus(Solution.Status.UNSOLVABLE);
+            return null;
+        }
+
+        setStatus(Solution.Status.SOLVED);
+        return nodes.path(goal);
+    }
+
+    @Override
+    protected long getOpenSize() {
+        return open.size();
+    }
+
+    @Override
+    protected double getTableHitRate() {
+        return table.getHitRate();
+    }
+
+    // expands a batch on the pool, false if the search was cancelled
+    private boolean expand(int[] batch, int size) {
+        // a batch of one chunk is not worth handing to the pool
+        if (size <= CHUNK) {
+            expand(0, batch, 0, size);
+            return true;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        for (int from = 0, index = 0; from < size; from += CHUNK, ++index) {
+            int start = from, end = Math.min(size, from + CHUNK), task = index;
+
+            tasks.add(() -> {
+                expand(task, batch, start, end);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            setStatus(Solution.Status.CANCELLED);
+            return false;
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+
+        return true;
+    }
+
+    // expands a part of the batch into the chunk of the task
+    private void expand(int task, int[] batch, int start, int end) {
+        if (workers[task] == null)
+            workers[task] = new Worker(new Board(board));
+
+        chunks[task].clear();
+        for (int i = start; i < end; ++i)
+            workers[task].expand(batch[i], chunks[task]);
+    }
+
+    // opens the positions a task added and keeps the cheapest solution
+    private void merge(Chunk chunk) {
+        for (int i = 0; i < chunk.openCount; ++i)
+            open.add(chunk.opened[i], chunk.priorities[i]);
+
+        for (int i = 0; i < chunk.goalCount; ++i)
+            if (nodes.cost(chunk.goals[i]) < goalCost) {
+                goal = chunk.goals[i];
+                goalCost = nodes.cost(goal);
+            }
+    }
+
+    /**
+     * Adds a position to the search as AStarSearch does, a task may call it
+     * while others do. The stripe of the position is locked, so the table
+     * entry and the stored board are checked and changed together
+     */
+    private void insert(int parent, int push, int cost, int player, int estimate, long key, boolean isSolved, int[] state, Chunk chunk) {
+        if (cost + estimate >= goalCost)
+            return;
+
+        if (isSolved) {
+            int added = next.getAndIncrement();
+            nodes.set(added, parent, push, cost, player, state);
+            chunk.goal(added);
+            return;
+        }
+
+        TranspositionTable stripe = table.stripe(key);
+
+        synchronized (stripe) {
+            long entry = stripe.get(key);
+            int known = entry == TranspositionTable.MISSING ? -1 : TranspositionTable.data(entry);
+
+            // a replaced entry or a hash collision is treated as a new position
+            if (known == -1 || !nodes.matches(known, player, state)) {
+                int added = next.getAndIncrement();
+                nodes.set(added, parent, push, cost, player, state);
+                stripe.put(key, added, cost);
+                chunk.open(added, OpenList.priority(cost + estimate, cost));
+            } else if (cost < nodes.cost(known)) {
+                stripe.put(key, known, cost);
+                nodes.update(known, parent, push, cost);
+                chunk.open(known, OpenList.priority(cost + estimate, cost));
+            }
+        }
+    }
+
+    /**
+     * The positions generated by one task, kept in deterministic mode until
+     * the calling thread inserts them, and the nodes the task opened
+     */
+    private final class Chunk {
+
+        private int[] parents = new int[256], pushes = new int[256], costs = new int[256];
+        private int[] players = new int[256], estimates = new int[256], boxes;
+        private long[] keys = new long[256];
+        private boolean[] solved = new boolean[256];
+        private final int[] state;
+
+        private int size;
+
+        private int[] opened = new int[256], goals = new int[4];
+        private long[] priorities = new long[256];
+        private int openCount, goalCount;
+
+        Chunk() {
+            boxes = new int[256 * boxCount];
+            state = new int[boxCount];
+        }
+
+        void clear() {
+            size = openCount = goalCount = 0;
+        }
+
+        void add(int parent, int push, int cost, int player, int estimate, long key, boolean isSolved, int[] position) {
+            if (size == parents.length) {
+                int capacity = size << 1;
+
+                parents = Arrays.copyOf(parents, capacity);
+                pushes = Arrays.copyOf(pushes, capacity);
+                costs = Arrays.copyOf(costs, capacity);
+                players = Arrays.copyOf(players, capacity);
+                estimates = Arrays.copyOf(estimates, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                solved = Arrays.copyOf(solved, capacity);
+                boxes = Arrays.copyOf(boxes, capacity * boxCount);
+            }
+
+            parents[size] = parent;
+            pushes[size] = push;
+            costs[size] = cost;
+            players[size] = player;
+            estimates[size] = estimate;
+            keys[size] = key;
+            solved[size] = isSolved;
+            System.arraycopy(position, 0, boxes, size * boxCount, boxCount);
+            ++size;
+        }
+
+        // inserts the generated positions in the order they were generated
+        void insert() {
+            for (int i = 0; i < size; ++i) {
+                System.arraycopy(boxes, i * boxCount, state, 0, boxCount);
+                ParallelSearch.this.insert(parents[i], pushes[i], costs[i], players[i], estimates[i], keys[i], solved[i], state, this);
+            }
+        }
+
+        void open(int node, long priority) {
+            if (openCount == opened.length) {
+                opened = Arrays.copyOf(opened, openCount << 1);
+                priorities = Arrays.copyOf(priorities, openCount << 1);
+            }
+
+            opened[openCount] = node;
+            priorities[openCount++] = priority;
+        }
+
+        void goal(int node) {
+            if (goalCount == goals.length)
+                goals = Arrays.copyOf(goals, goalCount << 1);
+
+            goals[goalCount++] = node;
+        }
+
+        long memory() {
+            return parents.length * (33L + 4 * boxCount) + opened.length * 12L + goals.length * 4L;
+        }
+    }
+
+    /**
+     * Expands positions on its own board, the stored boards of the batch are
+     * only read while the tasks run
+     */
+    private final class Worker {
+
+        private final Board board;
+        private final PushGenerator generator;
+        private final Heuristic heuristic;
+
+        private final int[] state, child, pushes, costs;
+
+        Worker(Board board) {
+            this.board = board;
+            generator = new PushGenerator(board);
+            generator.setCorralPruning(ParallelSearch.this.generator.isCorralPruning());
+            heuristic = ParallelSearch.this.heuristic.copy();
+
+            state = new int[boxCount];
+            child = new int[boxCount];
+            pushes = new int[boxCount * 4];
+            costs = new int[boxCount * 4];
+        }
+
+        void expand(int node, Chunk chunk) {
+            int cost = nodes.cost(node);
+
+            nodes.boxes(node, state);
+            board.setBoxes(state, boxCount);
+            board.setPlayer(nodes.player(node));
+
+            int count = generator.generate(pushes, 0), player = board.getPlayer();
+
+            for (int i = 0; i < count; ++i)
+                costs[i] = cost + generator.cost(pushes[i], countMoves);
+
+            for (int i = 0; i < count; ++i) {
+                generator.apply(pushes[i]);
+                board.boxPositions(child);
+
+                int estimate = heuristic.estimate(child, boxCount);
+
+                if (estimate != Heuristic.DEAD) {
+                    int childPlayer = countMoves ? board.getPlayer() : generator.normalize();
+                    long key = generator.hash(childPlayer);
+
+                    if (deterministic)
+                        chunk.add(node, pushes[i], costs[i], childPlayer, estimate, key, board.isSolved(), child);
+                    else
+                        insert(node, pushes[i], costs[i], childPlayer, estimate, key, board.isSolved(), child, chunk);
+                }
+
+                generator.revert(pushes[i], player);
+            }
+        }
+    }
+}
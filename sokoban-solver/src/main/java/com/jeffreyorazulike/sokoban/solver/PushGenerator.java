@@ -0,0 +1,465 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.Zobrist;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Finds the pushes the player can make on a board. A push is encoded as the
+ * cell of the box shifted left by two bits, ored with the direction of the
+ * push</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class PushGenerator {
+
+    private final Board board;
+
+    // the breadth first search queue
+    private final int[] queue;
+
+    // the cells holding a box, in ascending order
+    private final int[] boxes;
+
+    // a cell has been reached in the current flood when its mark equals the flood
+    private final int[] marks;
+    private int flood;
+
+    // the number of moves the player needs to reach a cell
+    private final int[] distance;
+
+    // the direction the player came from to reach a cell
+    private final byte[] from;
+
+    // the smallest cell the player can reach
+    private int normalized;
+
+    // the boxes found frozen by the running freeze check
+    private final int[] frozen;
+    private int frozenCount;
+
+    // the boxes on the recursion stack of the freeze check, they count as walls
+    private final boolean[] checking;
+
+    // the corral a cell was found in, and the cells of the corral being looked at
+    private final int[] corrals, corral;
+    private int corralMark;
+
+    private boolean corralPruning = true;
+
+    PushGenerator(Board board) {
+        this.board = board;
+        queue = new int[board.size()];
+        boxes = new int[board.size()];
+        marks = new int[board.size()];
+        distance = new int[board.size()];
+        from = new byte[board.size()];
+        frozen = new int[board.size()];
+        checking = new boolean[board.size()];
+        corrals = new int[board.size()];
+        corral = new int[board.size()];
+    }
+
+    /**
+     *
+     * @param corralPruning true if only the pushes into a PI corral should be
+     *                      generated when there is one, it keeps the fewest
+     *                      pushes but not the fewest moves
+     */
+    void setCorralPruning(boolean corralPruning) {
+        this.corralPruning = corralPruning;
+    }
+
+    boolean isCorralPruning() {
+        return corralPruning;
+    }
+
+    static int push(int box, int direction) {
+        return box << 2 | direction;
+    }
+
+    static int box(int push) {
+        return push >>> 2;
+    }
+
+    static int direction(int push) {
+        return push & 3;
+    }
+
+    Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Writes the pushes the player can make on the board. Pushes that end in
+     * a deadlock are left out, and when the pushes into a PI corral are found
+     * they are the only ones written
+     *
+     * @param into   the array to write the pushes to
+     * @param offset the index of the first push in the array
+     *
+     * @return the number of pushes written
+     */
+    int generate(int[] into, int offset) {
+        fill(board.getPlayer());
+
+        int count = 0, boxCount = board.boxPositions(boxes);
+
+        for (int i = 0; i < boxCount; ++i)
+            for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction) {
+                int box = boxes[i], step = board.offset(direction);
+
+                // pushes onto dead squares are dropped, the box could never reach a goal
+                if (!isReachable(box - step) || !board.isFree(box + step) || board.isDead(box + step))
+                    continue;
+
+                board.moveBox(box, box + step);
+                boolean deadlock = isFreezeDeadlock(box + step);
+                board.moveBox(box + step, box);
+
+                if (!deadlock)
+                    into[offset + count++] = push(box, direction);
+            }
+
+        return corralPruning && count > 1 ? restrictToCorral(into, offset, count) : count;
+    }
+
+    /**
+     *
+     * @param box a box that was just pushed
+     *
+     * @return true if the box can no longer move and it or a box holding it
+     *         is not on a goal
+     */
+    private boolean isFreezeDeadlock(int box) {
+        frozenCount = 0;
+
+        if (!isFrozen(box))
+            return false;
+
+        for (int i = 0; i < frozenCount; ++i)
+            if (!board.isGoal(frozen[i]))
+                return true;
+
+        return false;
+    }
+
+    // a box is frozen when it is blocked on both axes
+    private boolean isFrozen(int box) {
+        int found = frozenCount;
+
+        checking[box] = true;
+        boolean blocked = isBlocked(box, board.offset(Board.RIGHT)) && isBlocked(box, board.offset(Board.DOWN));
+        checking[box] = false;
+
+        if (blocked)
+            frozen[frozenCount++] = box;
+        else
+            // boxes found frozen while assuming this box was stuck do not count
+            frozenCount = found;
+
+        return blocked;
+    }
+
+    // checks if a box can not be moved along the axis of the offset
+    private boolean isBlocked(int box, int offset) {
+        int before = box - offset, after = box + offset;
+
+        if (board.isWall(before) || board.isWall(after) || checking[before] || checking[after])
+            return true;
+
+        // the box could only be pushed onto dead squares
+        if (board.isDead(before) && board.isDead(after))
+            return true;
+
+        return board.hasBox(before) && isFrozen(before) || board.hasBox(after) && isFrozen(after);
+    }
+
+    /**
+     * A PI corral is an area the player can not reach whose boundary boxes
+     * can only be pushed into it, and the player can make every one of those
+     * pushes. It has to be dealt with before anything else, so the pushes
+     * into the smallest one are the only ones worth trying
+     *
+     * @return the number of pushes left
+     */
+    private int restrictToCorral(int[] pushes, int offset, int count) {
+        if (corralMark > Integer.MAX_VALUE - count - 1) {
+            Arrays.fill(corrals, 0);
+            corralMark = 0;
+        }
+
+        int first = corralMark + 1, best = 0, bestCount = count;
+
+        for (int i = 0; i < count; ++i) {
+            int push = pushes[offset + i], target = box(push) + board.offset(direction(push));
+
+            if (isReachable(target) || corrals[target] >= first)
+                continue;
+
+            int mark = ++corralMark, size = fillCorral(target, mark), into = 0;
+
+            if (!isPiCorral(size, mark))
+                continue;
+
+            for (int j = 0; j < count; ++j) {
+                int other = pushes[offset + j];
+
+                if (corrals[box(other) + board.offset(direction(other))] == mark)
+                    ++into;
+            }
+
+            if (into > 0 && into < bestCount) {
+                best = mark;
+                bestCount = into;
+            }
+        }
+
+        if (best == 0)
+            return count;
+
+        int kept = 0;
+
+        for (int i = 0; i < count; ++i) {
+            int push = pushes[offset + i];
+
+            if (corrals[box(push) + board.offset(direction(push))] == best)
+                pushes[offset + kept++] = push;
+        }
+
+        return kept;
+    }
+
+    // marks the cells the player can not reach that are connected to a cell, boxes included
+    private int fillCorral(int start, int mark) {
+        int head = 0, tail = 0;
+
+        corral[tail++] = start;
+        corrals[start] = mark;
+
+        while (head < tail) {
+            int cell = corral[head++];
+
+            for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction) {
+                int next = cell + board.offset(direction);
+
+                if (corrals[next] != mark && !board.isWall(next) && !isReachable(next)) {
+                    corrals[next] = mark;
+                    corral[tail++] = next;
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    private boolean isPiCorral(int size, int mark) {
+        boolean solved = true;
+
+        for (int i = 0; i < size; ++i) {
+            int box = corral[i];
+
+            if (!board.hasBox(box))
+                continue;
+
+            solved &= board.isGoal(box);
+
+            if (!isBarrier(box))
+                continue;
+
+            for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction) {
+                int step = board.offset(direction), player = box - step, target = box + step;
+
+                if (!board.isFree(target) || board.isDead(target))
+                    continue;
+
+                // a push out of the corral breaks the I condition
+                if (corrals[target] != mark && isReachable(player))
+                    return false;
+
+                // a push into the corral the player can not make breaks the P condition
+                if (corrals[target] == mark && !isReachable(player) && !board.isWall(player))
+                    return false;
+            }
+        }
+
+        return !solved;
+    }
+
+    // a box of a corral next to a cell the player can reach
+    private boolean isBarrier(int box) {
+        for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction)
+            if (isReachable(box + board.offset(direction)))
+                return true;
+
+        return false;
+    }
+
+    /**
+     *
+     * @return the smallest cell the player can reach, positions that only
+     *         differ by where the player stands in the same area share it
+     */
+    int normalize() {
+        fill(board.getPlayer());
+        return normalized;
+    }
+
+    /**
+     *
+     * @return the smallest reachable cell found by the last flood
+     */
+    int normalized() {
+        return normalized;
+    }
+
+    /**
+     *
+     * @param cell the cell to check
+     *
+     * @return true if the last flood reached the cell
+     */
+    boolean isReachable(int cell) {
+        return marks[cell] == flood;
+    }
+
+    /**
+     *
+     * @param cell a cell reached by the last flood
+     *
+     * @return the number of moves the player needs to reach it
+     */
+    int distance(int cell) {
+        return distance[cell];
+    }
+
+    /**
+     *
+     * @param push       a push found by the last call to
+     *                   {@link #generate(int[], int)}
+     * @param countMoves true if the walk to the box counts
+     *
+     * @return the pushes or moves the push costs
+     */
+    int cost(int push, boolean countMoves) {
+        if (!countMoves)
+            return 1;
+
+        return distance[box(push) - board.offset(direction(push))] + 1;
+    }
+
+    /**
+     * Makes a push without checking the rules of the game
+     */
+    void apply(int push) {
+        int box = box(push);
+
+        board.moveBox(box, box + board.offset(direction(push)));
+        board.setPlayer(box);
+    }
+
+    /**
+     * Takes back a push made with {@link #apply(int)}
+     *
+     * @param push   the push to take back
+     * @param player the cell the player stood on before the push
+     */
+    void revert(int push, int player) {
+        int box = box(push);
+
+        board.moveBox(box + board.offset(direction(push)), box);
+        board.setPlayer(player);
+    }
+
+    /**
+     *
+     * @param player the cell standing for the player
+     *
+     * @return the hash of the position on the board
+     */
+    long hash(int player) {
+        return board.getBoxHash() ^ Zobrist.player(player);
+    }
+
+    /**
+     * Walks the player to a cell along a shortest path
+     *
+     * @param target the cell to walk to
+     * @param moves  where the LURD notation of the walk is written
+     *
+     * @return false if the player cannot reach the cell
+     */
+    boolean walk(int target, StringBuilder moves) {
+        fill(board.getPlayer());
+
+        if (!isReachable(target))
+            return false;
+
+        int start = moves.length();
+
+        for (int cell = target; cell != board.getPlayer(); cell -= board.offset(from[cell]))
+            moves.append(Board.DIRECTIONS.charAt(from[cell]));
+
+        // the walk was written from the target back to the player
+        for (int left = start, right = moves.length() - 1; left < right; ++left, --right) {
+            char swap = moves.charAt(left);
+            moves.setCharAt(left, moves.charAt(right));
+            moves.setCharAt(right, swap);
+        }
+
+        board.setPlayer(target);
+
+        return true;
+    }
+
+    // marks the cells the player can reach from a cell
+    private void fill(int start) {
+        if (++flood == 0) {
+            Arrays.fill(marks, 0);
+            flood = 1;
+        }
+
+        int head = 0, tail = 0;
+
+        queue[tail++] = start;
+        marks[start] = flood;
+        distance[start] = 0;
+        normalized = start;
+
+        while (head < tail) {
+            int cell = queue[head++];
+
+            for (int direction = Board.LEFT; direction <= Board.DOWN; ++direction) {
+                int next = cell + board.offset(direction);
+
+                if (marks[next] == flood || !board.isFree(next))
+                    continue;
+
+                marks[next] = flood;
+                distance[next] = distance[cell] + 1;
+                from[next] = (byte) direction;
+                queue[tail++] = next;
+
+                if (next < normalized)
+                    normalized = next;
+            }
+        }
+    }
+}
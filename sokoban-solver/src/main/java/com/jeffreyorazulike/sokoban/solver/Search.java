@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import com.jeffreyorazulike.sokoban.metrics.SolverProgressEvent;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * The state and budget shared by the search algorithms</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+abstract class Search {
+
+    // the progress is reported at most this often, in nanoseconds
+    private static final long REPORT_INTERVAL = 100_000_000;
+
+    private static final Metrics.Gauge NODES_PER_SECOND = Metrics.gauge("solver.nodesPerSecond"),
+            TABLE_HIT_RATE = Metrics.gauge("solver.tableHitRate"), OPEN_SIZE = Metrics.gauge("solver.openSize");
+
+    protected final Board board;
+    protected final PushGenerator generator;
+    protected final Heuristic heuristic;
+    protected final boolean countMoves;
+
+    // the bytes the transposition table of the search may use
+    protected final long tableMemory;
+
+    private final long nodeLimit, memoryLimit, deadline;
+
+    private final LongConsumer onProgress;
+
+    protected long expanded;
+
+    private long peakMemory, timeChecked;
+
+    // when and at how many expansions the progress was last reported
+    private long reported = System.nanoTime(), reportedExpanded;
+
+    private Solution.Status status;
+
+    /**
+     *
+     * @param board    the position to search from, it is changed by the search
+     * @param settings the solver holding the objective and budgets
+     */
+    protected Search(Board board, Solver settings) {
+        this.board = board;
+        generator = new PushGenerator(board);
+        heuristic = heuristic(board);
+        countMoves = settings.getObjective() == Solver.Objective.MOVES;
+        generator.setCorralPruning(settings.isCorralPruning() && !countMoves);
+        tableMemory = Math.min(settings.getTableMemory(), settings.getMemoryLimit() / 2);
+
+        nodeLimit = settings.getNodeLimit();
+        memoryLimit = settings.getMemoryLimit();
+        deadline = settings.getTimeLimit() == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + settings.getTimeLimit() * 1_000_000;
+        onProgress = settings.getOnProgress();
+    }
+
+    /**
+     *
+     * @param board the start of the search
+     *
+     * @return the lower bound used by the searches
+     */
+    static Heuristic heuristic(Board board) {
+        return MatchingHeuristic.fits(board) ? new MatchingHeuristic(board) : new DistanceHeuristic(board);
+    }
+
+    /**
+     *
+     * @return the pushes that solve the board or null if the search ended
+     *         without a solution, see {@link #getStatus()}
+     */
+    abstract int[] search();
+
+    Solution.Status getStatus() {
+        return status;
+    }
+
+    long getExpanded() {
+        return expanded;
+    }
+
+    long getPeakMemory() {
+        return peakMemory;
+    }
+
+    /**
+     *
+     * @return the positions waiting to be expanded
+     */
+    protected long getOpenSize() {
+        return 0;
+    }
+
+    /**
+     *
+     * @return the fraction of transposition table lookups that found their
+     *         position, 0 if the table does not count them
+     */
+    protected double getTableHitRate() {
+        return 0;
+    }
+
+    protected void setStatus(Solution.Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Records the memory used and checks the budgets, and whether the thread
+     * running the search was interrupted
+     *
+     * @param memory the bytes currently held by the search
+     *
+     * @return false if a budget ran out, the status tells which
+     */
+    protected boolean withinBudget(long memory) {
+        if (memory > peakMemory)
+            peakMemory = memory;
+
+        if (expanded >= nodeLimit)
+            status = Solution.Status.NODE_LIMIT;
+        else if (memory > memoryLimit)
+            status = Solution.Status.MEMORY_LIMIT;
+        else if (expanded - timeChecked >= 256 && Thread.currentThread().isInterrupted())
+            status = Solution.Status.CANCELLED;
+        else if (expanded - timeChecked >= 256 && isPastDeadline(memory))
+            status = Solution.Status.TIME_LIMIT;
+        else
+            return true;
+
+        return false;
+    }
+
+    // reads the clock only every few hundred expansions, and tells the progress as often
+    private boolean isPastDeadline(long memory) {
+        timeChecked = expanded;
+
+        if (onProgress != null)
+            onProgress.accept(expanded);
+
+        long now = System.nanoTime();
+
+        if (now - reported >= REPORT_INTERVAL)
+            report(now, memory);
+
+        return now > deadline;
+    }
+
+    // records the speed of the search in the metrics and the flight recorder
+    private void report(long now, long memory) {
+        double nodesPerSecond = (expanded - reportedExpanded) * 1e9 / (now - reported);
+        long openSize = getOpenSize();
+        double hitRate = getTableHitRate();
+
+        reported = now;
+        reportedExpanded = expanded;
+
+        NODES_PER_SECOND.set(nodesPerSecond);
+        TABLE_HIT_RATE.set(hitRate);
+        OPEN_SIZE.set(openSize);
+
+        SolverProgressEvent event = new SolverProgressEvent();
+        if (event.shouldCommit()) {
+            event.algorithm = getClass().getSimpleName();
+            event.nodes = expanded;
+            event.nodesPerSecond = nodesPerSecond;
+            event.tableHitRate = hitRate;
+            event.openSize = openSize;
+            event.memory = memory;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+/**
+ * <p>
+ * The outcome of a search and what it cost to find it</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class Solution {
+
+    public enum Status {
+        SOLVED, UNSOLVABLE, NODE_LIMIT, MEMORY_LIMIT, TIME_LIMIT,
+        /**
+         * The thread running the search was interrupted
+         */
+        CANCELLED
+    }
+
+    private final Status status;
+    private final String moves;
+    private final int pushCount;
+    private final long nodesExpanded, elapsed, peakMemory;
+
+    Solution(Status status, String moves, long nodesExpanded, long elapsed, long peakMemory) {
+        this.status = status;
+        this.moves = moves;
+        this.nodesExpanded = nodesExpanded;
+        this.elapsed = elapsed;
+        this.peakMemory = peakMemory;
+
+        int pushes = 0;
+        for (int i = 0; moves != null && i < moves.length(); ++i)
+            if (Character.isUpperCase(moves.charAt(i)))
+                ++pushes;
+        pushCount = pushes;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    /**
+     *
+     * @return the solution in LURD notation, upper case letters are pushes,
+     *         or null if no solution was found
+     */
+    public String getMoves() {
+        return moves;
+    }
+
+    public int getMoveCount() {
+        return moves == null ? -1 : moves.length();
+    }
+
+    public int getPushCount() {
+        return moves == null ? -1 : pushCount;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     *
+     * @return the time the search took in nanoseconds
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsed == 0 ? 0 : nodesExpanded * 1e9 / elapsed;
+    }
+
+    /**
+     *
+     * @return the most bytes the search structures held at once
+     */
+    public long getPeakMemory() {
+        return peakMemory;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s moves=%d pushes=%d nodes=%d time=%.1fms nodes/s=%.0f memory=%dKB",
+                status, getMoveCount(), getPushCount(), nodesExpanded, elapsed / 1e6, getNodesPerSecond(), peakMemory >> 10);
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Shortens a known solution of a level, such as one played by a person,
+ * without searching the whole level. The walks between the pushes are
+ * replaced by shortest walks, then short windows of the pushes are searched
+ * for a cheaper way from the position before the window to the position
+ * after it. The windows of a pass do not overlap so they are searched in
+ * parallel, and the passes shift the windows by half until one finds
+ * nothing</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class SolutionOptimizer {
+
+    private final Board board;
+
+    private Solver.Objective objective = Solver.Objective.PUSHES;
+
+    private int window = 12;
+
+    private long nodeLimit = 50_000;
+
+    private long timeLimit = Long.MAX_VALUE;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private ForkJoinPool pool;
+
+    /**
+     *
+     * @param board the start of the level the solutions are for, it is
+     *              copied
+     */
+    public SolutionOptimizer(Board board) {
+        if (board.getPlayer() < 0)
+            throw new IllegalArgumentException("The board has no player");
+
+        this.board = new Board(board);
+    }
+
+    public Solver.Objective getObjective() {
+        return objective;
+    }
+
+    /**
+     *
+     * @param objective what is shortened first, the other is only shortened
+     *                  when it does not lengthen the first
+     */
+    public void setObjective(Solver.Objective objective) {
+        this.objective = objective;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     *
+     * @param window the pushes searched at once, longer windows find more
+     *               but cost more
+     */
+    public void setWindow(int window) {
+        this.window = Math.max(2, window);
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     *
+     * @param nodeLimit the most positions the search of one window may
+     *                  expand
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     *
+     * @param timeLimit the most milliseconds the optimizer may take, the
+     *                  best solution found by then is returned
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     *
+     * @param pool the pool the windows are searched on, when it is null a pool
+     *             of {@link #getThreads()} threads is made for every call
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Shortens a solution. Interrupting the calling thread returns the best
+     * solution found so far
+     *
+     * @param moves a solution of the level in LURD notation, the case of the
+     *              letters does not matter
+     *
+     * @return the shortened solution, it is never longer than the one given
+     *
+     * @throws IllegalArgumentException if the moves do not solve the level
+     */
+    public Solution optimize(String moves) {
+        long start = System.nanoTime();
+        long deadline = timeLimit == Long.MAX_VALUE ? Long.MAX_VALUE : start + timeLimit * 1_000_000;
+
+        int[] pushes = pushes(moves);
+        AtomicLong expanded = new AtomicLong();
+        ForkJoinPool owned = pool == null ? new ForkJoinPool(Math.max(1, threads)) : null;
+
+        try {
+            // a pass starting at the first push and one starting half a window later, until neither finds anything
+            for (int pass = 0, idle = 0; idle < 2 && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted(); ++pass) {
+                int[] shorter = pass(pushes, pass % 2 == 0 ? 0 : window / 2, owned != null ? owned : pool, expanded, deadline);
+
+                idle = shorter == pushes ? idle + 1 : 0;
+                pushes = shorter;
+            }
+        } finally {
+            if (owned != null)
+                owned.shutdown();
+        }
+
+        return new Solution(Solution.Status.SOLVED, Solver.toLurd(board, pushes), expanded.get(), System.nanoTime() - start, 0);
+    }
+
+    // the pushes made by the moves, checked against the rules of the game
+    private int[] pushes(String moves) {
+        Board replay = new Board(board);
+        int[] pushes = new int[moves.length()];
+        int count = 0;
+
+        for (int i = 0; i < moves.length(); ++i) {
+            int direction = Board.DIRECTIONS.indexOf(Character.toLowerCase(moves.charAt(i)));
+
+            if (direction < 0)
+                throw new IllegalArgumentException("'" + moves.charAt(i) + "' is not a move");
+
+            int result = replay.move(direction);
+
+            if (result == Board.BLOCKED)
+                throw new IllegalArgumentException("move " + (i + 1) + " is blocked");
+            if (result == Board.PUSHED)
+                pushes[count++] = PushGenerator.push(replay.getPlayer(), direction);
+        }
+
+        if (!replay.isSolved())
+            throw new IllegalArgumentException("The moves do not solve the level");
+
+        return Arrays.copyOf(pushes, count);
+    }
+
+    /**
+     * Searches the windows starting at an offset in parallel
+     *
+     * @return the pushes with every window that was improved replaced, or
+     *         the same array if none was
+     */
+    private int[] pass(int[] pushes, int offset, ForkJoinPool pool, AtomicLong expanded, long deadline) {
+        Path path = new Path(board, pushes);
+        List<Callable<int[]>> windows = new ArrayList<>();
+
+        for (int from = offset > 0 ? -offset : 0; from < pushes.length; from += window) {
+            int first = Math.max(0, from), last = Math.min(pushes.length, from + window);
+
+            if (last - first > 1)
+                windows.add(() -> new Window(path, first, last).search(expanded, deadline));
+        }
+
+        List<int[]> replacements = new ArrayList<>(windows.size());
+
+        try {
+            for (Future<int[]> future : pool.invokeAll(windows))
+                replacements.add(future.get());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return pushes;
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+
+        // the windows start and end in the same positions as before so their replacements fit together
+        int size = pushes.length;
+        for (int[] replacement : replacements)
+            if (replacement != null)
+                size += replacement.length;
+
+        // a window can take more pushes when it saves moves
+        int[] shorter = new int[size];
+        int count = 0, next = 0;
+        boolean improved = false;
+
+        for (int i = 0, from = offset > 0 ? -offset : 0; from < pushes.length; from += window) {
+            int first = Math.max(0, from), last = Math.min(pushes.length, from + window);
+
+            if (last - first <= 1)
+                continue;
+
+            int[] replacement = replacements.get(i++);
+
+            if (replacement == null)
+                continue;
+
+            System.arraycopy(pushes, next, shorter, count, first - next);
+            count += first - next;
+            System.arraycopy(replacement, 0, shorter, count, replacement.length);
+            count += replacement.length;
+            next = last;
+            improved = true;
+        }
+
+        if (!improved)
+            return pushes;
+
+        System.arraycopy(pushes, next, shorter, count, pushes.length - next);
+        return Arrays.copyOf(shorter, count + pushes.length - next);
+    }
+
+    /**
+     * <p>
+     * The positions a solution goes through, and the walk before each
+     * push</p>
+     */
+    private static final class Path {
+
+        final Board start;
+        final int[] pushes, players, walks;
+        final int[][] boxes;
+
+        Path(Board start, int[] pushes) {
+            Board replay = new Board(start);
+            PushGenerator walker = new PushGenerator(replay);
+            StringBuilder moves = new StringBuilder();
+
+            this.start = start;
+            this.pushes = pushes;
+            players = new int[pushes.length + 1];
+            walks = new int[pushes.length];
+            boxes = new int[pushes.length + 1][replay.getBoxCount()];
+
+            replay.boxPositions(boxes[0]);
+            players[0] = replay.getPlayer();
+
+            for (int i = 0; i < pushes.length; ++i) {
+                moves.setLength(0);
+                walker.walk(PushGenerator.box(pushes[i]) - replay.offset(PushGenerator.direction(pushes[i])), moves);
+                walker.apply(pushes[i]);
+
+                walks[i] = moves.length();
+                replay.boxPositions(boxes[i + 1]);
+                players[i + 1] = replay.getPlayer();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * A uniform cost search for a cheaper way through some of the pushes of
+     * a solution, on the node store, open list and transposition table of
+     * {@link AStarSearch}. The cost puts the objective in the high bits and
+     * the other count in the low bits, so a window that keeps the objective
+     * but saves on the other count is taken too</p>
+     */
+    private final class Window {
+
+        // the bits of a cost holding the count that is not the objective
+        private static final int LOW = 16;
+
+        private final Path path;
+        private final int first, last;
+        private final Board board;
+        private final PushGenerator generator;
+
+        Window(Path path, int first, int last) {
+            this.path = path;
+            this.first = first;
+            this.last = last;
+
+            board = new Board(path.start);
+            generator = new PushGenerator(board);
+            generator.setCorralPruning(false);
+        }
+
+        // what a walk of some moves and a number of pushes cost, -1 if it does not fit in a cost
+        private int cost(long moves, long pushes) {
+            long high = objective == Solver.Objective.PUSHES ? pushes : moves, low = objective == Solver.Objective.PUSHES ? moves : pushes;
+            return high >= 1 << (31 - LOW) || low >= 1 << LOW ? -1 : (int) (high << LOW | low);
+        }
+
+        private int add(int cost, int more) {
+            int high = (cost >>> LOW) + (more >>> LOW), low = (cost & (1 << LOW) - 1) + (more & (1 << LOW) - 1);
+            return high >= 1 << (31 - LOW) || low >= 1 << LOW ? -1 : high << LOW | low;
+        }
+
+        /**
+         *
+         * @return the pushes that replace the window, or null if nothing
+         *         cheaper was found
+         */
+        int[] search(AtomicLong expanded, long deadline) {
+            long moves = 0;
+            for (int i = first; i < last; ++i)
+                moves += path.walks[i] + 1;
+
+            // a window too long to cost is left as it is
+            int bound = cost(moves, last - first);
+            if (bound == -1)
+                return null;
+
+            // the last window only has to solve the level, the others must end where the solution did
+            boolean solve = last == path.pushes.length;
+
+            board.setBoxes(path.boxes[last], path.boxes[last].length);
+            long target = board.getBoxHash();
+            int goal = path.players[last];
+
+            int boxCount = board.getBoxCount();
+            NodeStore nodes = new NodeStore(boxCount);
+            OpenList open = new OpenList();
+            TranspositionTable table = TranspositionTable.withMemory(Math.min(nodeLimit, 1 << 20) * 4 * TranspositionTable.SLOT_SIZE);
+
+            int[] state = path.boxes[first].clone(), pushes = new int[boxCount * 4];
+            int best = -1;
+            long count = 0;
+
+            int root = nodes.add(NodeStore.ROOT, 0, 0, path.players[first], state);
+            open.add(root, OpenList.priority(0, 0));
+
+            try {
+                while (!open.isEmpty()) {
+                    long priority = open.peek();
+                    int node = open.poll(), cost = nodes.cost(node);
+
+                    // nothing left can be cheaper than the window or the best way found
+                    if (cost >= bound)
+                        break;
+                    // skip entries left behind when a cheaper path to the node was found
+                    if (Integer.MAX_VALUE - (int) priority != cost)
+                        continue;
+
+                    if (++count > nodeLimit || (count & 255) == 0 && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()))
+                        return null;
+
+                    nodes.boxes(node, state);
+                    board.setBoxes(state, boxCount);
+                    board.setPlayer(nodes.player(node));
+
+                    int generated = generator.generate(pushes, 0), player = board.getPlayer();
+
+                    if (solve ? board.isSolved() : board.getBoxHash() == target && generator.isReachable(goal)) {
+                        // the walk to where the solution stood counts, so the next window starts from the same cell
+                        int done = solve ? cost : add(cost, cost(generator.distance(goal), 0));
+
+                        if (done != -1 && done < bound) {
+                            best = node;
+                            bound = done;
+                        }
+                        continue;
+                    }
+
+                    for (int i = 0; i < generated; ++i) {
+                        int child = add(cost, cost(generator.cost(pushes[i], true), 1));
+
+                        if (child == -1 || child >= bound)
+                            continue;
+
+                        generator.apply(pushes[i]);
+                        long key = generator.hash(board.getPlayer());
+                        int childPlayer = board.getPlayer();
+                        board.boxPositions(state);
+                        generator.revert(pushes[i], player);
+
+                        long entry = table.get(key);
+                        int known = entry == TranspositionTable.MISSING ? -1 : TranspositionTable.data(entry);
+
+                        // a replaced entry or a hash collision is treated as a new position
+                        if (known == -1 || !nodes.matches(known, childPlayer, state)) {
+                            int added = nodes.add(node, pushes[i], child, childPlayer, state);
+                            table.put(key, added, child);
+                            open.add(added, OpenList.priority(child, child));
+                        } else if (child < nodes.cost(known)) {
+                            table.put(key, known, child);
+                            nodes.update(known, node, pushes[i], child);
+                            open.add(known, OpenList.priority(child, child));
+                        }
+                    }
+                }
+
+                return best == -1 ? null : nodes.path(best);
+            } finally {
+                expanded.addAndGet(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.metrics.Metrics;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>
+ * Finds a solution with the fewest pushes or moves for a board. The board
+ * can be the start of a level or any position of a game in progress, e.g.
+ * {@code new Solver(gameModel.getBoard())}</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public class Solver {
+
+    /**
+     * What the solution should have the fewest of
+     */
+    public enum Objective {
+        PUSHES, MOVES
+    }
+
+    public enum Algorithm {
+        A_STAR, IDA_STAR
+    }
+
+    private static final Metrics.Timer SEARCH = Metrics.timer("solver.search");
+
+    private static final Metrics.Counter NODES = Metrics.counter("solver.nodes");
+
+    private final Board board;
+
+    private Objective objective = Objective.PUSHES;
+
+    private Algorithm algorithm = Algorithm.A_STAR;
+
+    private long nodeLimit = Long.MAX_VALUE;
+
+    private long memoryLimit = Runtime.getRuntime().maxMemory() / 2;
+
+    private long timeLimit = Long.MAX_VALUE;
+
+    private long tableMemory = 128L << 20;
+
+    private int threads = 1;
+
+    private boolean deterministic;
+
+    private ForkJoinPool pool;
+
+    private boolean corralPruning = true;
+
+    private LongConsumer onProgress;
+
+    /**
+     *
+     * @param board the position to solve, it is copied so later changes to
+     *              the board do not affect the solver
+     */
+    public Solver(Board board) {
+        if (board.getPlayer() < 0)
+            throw new IllegalArgumentException("The board has no player");
+
+        this.board = new Board(board);
+    }
+
+    public Objective getObjective() {
+        return objective;
+    }
+
+    public void setObjective(Objective objective) {
+        this.objective = objective;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     *
+     * @param nodeLimit the most positions the search may expand
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     *
+     * @param memoryLimit the most bytes the search structures may hold
+     */
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     *
+     * @param timeLimit the most milliseconds the search may take
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public long getTableMemory() {
+        return tableMemory;
+    }
+
+    /**
+     *
+     * @param tableMemory the bytes of the transposition table, it counts
+     *                    against the memory limit
+     */
+    public void setTableMemory(long tableMemory) {
+        this.tableMemory = tableMemory;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     *
+     * @param threads the number of threads an A* search spreads its
+     *                expansions over, IDA* always runs on one thread
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     *
+     * @param deterministic true if a parallel search must return the same
+     *                      solution whatever the number of threads, at some
+     *                      cost in speed
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     *
+     * @param pool the pool a parallel search runs on, when it is null a pool
+     *             of {@link #getThreads()} threads is made for every search
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public boolean isCorralPruning() {
+        return corralPruning;
+    }
+
+    /**
+     *
+     * @param corralPruning true if a search for the fewest pushes should only
+     *                      try the pushes into a PI corral when there is one,
+     *                      it is never used for the fewest moves
+     */
+    public void setCorralPruning(boolean corralPruning) {
+        this.corralPruning = corralPruning;
+    }
+
+    public LongConsumer getOnProgress() {
+        return onProgress;
+    }
+
+    /**
+     *
+     * @param onProgress told the number of positions expanded every few
+     *                   hundred expansions, on the thread running the search
+     */
+    public void setOnProgress(LongConsumer onProgress) {
+        this.onProgress = onProgress;
+    }
+
+    /**
+     * Runs the search, a parallel search blocks the calling thread until it
+     * ends. Interrupting the calling thread ends the search with
+     * {@link Solution.Status#CANCELLED}
+     *
+     * @return the solution and the statistics of the search
+     */
+    public Solution solve() {
+        long start = System.nanoTime();
+
+        if (board.getBoxCount() > board.getGoalCount())
+            return new Solution(Solution.Status.UNSOLVABLE, null, 0, System.nanoTime() - start, 0);
+
+        Search search;
+        ForkJoinPool owned = null;
+
+        if (algorithm == Algorithm.IDA_STAR)
+            search = new IdaStarSearch(new Board(board), this);
+        else if (pool == null && threads <= 1)
+            search = new AStarSearch(new Board(board), this);
+        else
+            search = new ParallelSearch(new Board(board), this, pool != null ? pool : (owned = new ForkJoinPool(threads)));
+
+        int[] pushes;
+
+        try {
+            pushes = search.search();
+        } finally {
+            if (owned != null)
+                owned.shutdown();
+        }
+
+        SEARCH.stop(start);
+        NODES.add(search.getExpanded());
+
+        return new Solution(search.getStatus(), pushes == null ? null : toLurd(board, pushes), search.getExpanded(), System.nanoTime() - start, search.getPeakMemory());
+    }
+
+    // replays the pushes from the start position, walking the player between them
+    static String toLurd(Board board, int[] pushes) {
+        Board replay = new Board(board);
+        PushGenerator walker = new PushGenerator(replay);
+        StringBuilder moves = new StringBuilder(pushes.length * 4);
+
+        for (int push : pushes) {
+            int direction = PushGenerator.direction(push);
+
+            walker.walk(PushGenerator.box(push) - replay.offset(direction), moves);
+            replay.move(direction);
+            moves.append(Character.toUpperCase(Board.DIRECTIONS.charAt(direction)));
+        }
+
+        return moves.toString();
+    }
+}
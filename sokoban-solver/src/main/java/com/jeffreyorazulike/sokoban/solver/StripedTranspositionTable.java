@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+/**
+ * <p>
+ * A transposition table split into stripes by the high bits of the keys.
+ * Threads lock the stripe of a key while they use it, so threads working on
+ * different stripes do not wait for each other</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+final class StripedTranspositionTable {
+
+    // the stripe of a key is its highest bits, the slots of a stripe are chosen by the low ones
+    private static final int STRIPES = 64, SHIFT = 58;
+
+    private final TranspositionTable[] stripes = new TranspositionTable[STRIPES];
+
+    /**
+     *
+     * @param bytes the memory all the stripes may use
+     */
+    StripedTranspositionTable(long bytes) {
+        for (int i = 0; i < STRIPES; ++i)
+            stripes[i] = TranspositionTable.withMemory(bytes / STRIPES);
+    }
+
+    /**
+     *
+     * @param key the hash of a position
+     *
+     * @return the table holding the key, it must be locked while it is used
+     */
+    TranspositionTable stripe(long key) {
+        return stripes[(int) (key >>> SHIFT)];
+    }
+
+    long memory() {
+        long memory = 0;
+        for (TranspositionTable stripe : stripes)
+            memory += stripe.memory();
+        return memory;
+    }
+
+    /**
+     *
+     * @return the fraction of lookups that found their key, read while no
+     *         thread uses the table
+     */
+    double getHitRate() {
+        long lookups = 0, hits = 0;
+
+        for (TranspositionTable stripe : stripes) {
+            lookups += stripe.getLookups();
+            hits += stripe.getHits();
+        }
+
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A fixed size open addressing table from 64 bit position hashes to an int
+ * of data and an int cost. Keys are placed in buckets of four slots, when a
+ * bucket is full the entry with the highest cost is replaced since deep
+ * positions are the cheapest to search again</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+public final class TranspositionTable {
+
+    /**
+     * Returned by {@link #get(long)} for a key that is not in the table
+     */
+    public static final long MISSING = -1;
+
+    /**
+     * The bytes used by every slot of the table
+     */
+    public static final int SLOT_SIZE = 16;
+
+    private static final int BUCKET = 4;
+
+    // zero marks an empty slot, the hash zero is stored as EMPTY_KEY instead
+    private static final long EMPTY_KEY = 0x9E3779B97F4A7C15L;
+
+    private final long[] keys, entries;
+    private final int mask;
+
+    private int size;
+
+    private long lookups, hits;
+
+    /**
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    public TranspositionTable(int capacity) {
+        capacity = Math.max(BUCKET, Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1);
+
+        keys = new long[capacity];
+        entries = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     *
+     * @param bytes the memory the table may use
+     *
+     * @return the largest table that fits in the memory
+     */
+    public static TranspositionTable withMemory(long bytes) {
+        return new TranspositionTable((int) Math.min(1 << 30, Long.highestOneBit(Math.max(bytes / SLOT_SIZE, BUCKET))));
+    }
+
+    public static int data(long entry) {
+        return (int) entry;
+    }
+
+    public static int cost(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    /**
+     *
+     * @param key the hash of a position
+     *
+     * @return the entry stored for the key or {@link #MISSING}, use
+     *         {@link #data(long)} and {@link #cost(long)} to read it
+     */
+    public long get(long key) {
+        key = key == 0 ? EMPTY_KEY : key;
+        ++lookups;
+
+        for (int slot = (int) (key ^ key >>> 32) & mask & -BUCKET, end = slot + BUCKET; slot < end; ++slot)
+            if (keys[slot] == key) {
+                ++hits;
+                return entries[slot];
+            } else if (keys[slot] == 0)
+                break;
+
+        return MISSING;
+    }
+
+    /**
+     * Stores an entry, replacing the entry of the key if there is one
+     *
+     * @param key  the hash of a position
+     * @param data a value the caller attaches to the position
+     * @param cost the non negative cost of the position, used to choose the
+     *             entry to replace in a full bucket
+     */
+    public void put(long key, int data, int cost) {
+        key = key == 0 ? EMPTY_KEY : key;
+
+        int victim = -1;
+
+        for (int slot = (int) (key ^ key >>> 32) & mask & -BUCKET, end = slot + BUCKET; slot < end; ++slot) {
+            if (keys[slot] == key || keys[slot] == 0) {
+                if (keys[slot] == 0)
+                    ++size;
+                victim = slot;
+                break;
+            }
+
+            if (victim == -1 || cost(entries[slot]) > cost(entries[victim]))
+                victim = slot;
+        }
+
+        keys[victim] = key;
+        entries[victim] = (long) cost << 32 | (data & 0xFFFFFFFFL);
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    /**
+     *
+     * @return the number of slots in use
+     */
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public long memory() {
+        return (long) keys.length * SLOT_SIZE;
+    }
+
+    /**
+     *
+     * @return the fraction of lookups that found their key
+     */
+    public double getHitRate() {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+}
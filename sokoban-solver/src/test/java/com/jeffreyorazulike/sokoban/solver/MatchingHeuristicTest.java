@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Checks the estimates kept up to date between calls against ones made
+ * from nothing</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class MatchingHeuristicTest {
+
+    private static final String CROWDED
+            = "#########\n"
+            + "#.. $ ..#\n"
+            + "# $$ $$ #\n"
+            + "#  #@#  #\n"
+            + "# $$ $  #\n"
+            + "#..  ...#\n"
+            + "#########\n";
+
+    // estimates the positions of random pushes with one heuristic, and with a new one for each position
+    private static void assertSameEstimates(String level, long seed) {
+        Board start = Board.parse(level), board = new Board(start);
+        PushGenerator generator = new PushGenerator(board);
+        Heuristic incremental = new MatchingHeuristic(start);
+        Random random = new Random(seed);
+
+        int[] boxes = new int[board.getBoxCount()], pushes = new int[board.getBoxCount() * 4];
+        List<int[]> seen = new ArrayList<>();
+
+        for (int push = 0; push < 300; ++push) {
+            int count = generator.generate(pushes, 0);
+
+            // a position with no push left starts the walk again
+            if (count == 0 || board.isSolved()) {
+                start.boxPositions(boxes);
+                board.setBoxes(boxes, boxes.length);
+                board.setPlayer(start.getPlayer());
+                continue;
+            }
+
+            generator.apply(pushes[random.nextInt(count)]);
+            board.boxPositions(boxes);
+            seen.add(boxes.clone());
+
+            assertEquals(new MatchingHeuristic(board).estimate(boxes, boxes.length), incremental.estimate(boxes, boxes.length), "push " + push);
+        }
+
+        // jumps between positions far apart, as a search does when it takes another branch
+        for (int i = 0; i < 200; ++i) {
+            int[] position = seen.get(random.nextInt(seen.size()));
+            board.setBoxes(position, position.length);
+
+            assertEquals(new MatchingHeuristic(board).estimate(position, position.length), incremental.estimate(position, position.length), "jump " + i);
+        }
+
+        // a copy shares the tables but not the assignment
+        Heuristic copy = incremental.copy();
+        for (int[] position : seen)
+            assertEquals(incremental.estimate(position, position.length), copy.estimate(position, position.length));
+    }
+
+    @Test
+    void agreesWithAFreshEstimateOnTheDefaultLevel() {
+        for (long seed = 0; seed < 5; ++seed)
+            assertSameEstimates(LevelConstants.DEFAULT_LEVEL, seed);
+    }
+
+    @Test
+    void agreesWithAFreshEstimateWithManyBoxes() {
+        for (long seed = 0; seed < 5; ++seed)
+            assertSameEstimates(CROWDED, seed);
+    }
+
+    @Test
+    void neverEstimatesMoreThanTheFewestPushes() {
+        Board board = Board.parse(LevelConstants.DEFAULT_LEVEL);
+        int[] boxes = new int[board.getBoxCount()];
+        board.boxPositions(boxes);
+
+        assertTrue(new MatchingHeuristic(board).estimate(boxes, boxes.length) <= 97);
+    }
+
+    @Test
+    void findsBoxesThatCanNotReachAGoal() {
+        Board board = Board.parse("#####\n#$ .#\n# @ #\n#####\n");
+        int[] boxes = new int[board.getBoxCount()];
+        board.boxPositions(boxes);
+
+        assertEquals(Heuristic.DEAD, new MatchingHeuristic(board).estimate(boxes, boxes.length));
+    }
+
+    @Test
+    void fallsBackToTheNearestGoalOnLargeLevels() {
+        // 200 boxes a push above their goals on 300 by 300 cells need more than the table limit
+        StringBuilder level = new StringBuilder("#".repeat(300)).append('\n');
+        for (int row = 1; row < 299; ++row) {
+            String inside = row == 1 ? "@" + " ".repeat(297) : row == 100 ? "$".repeat(200) + " ".repeat(98) : row == 101 ? ".".repeat(200) + " ".repeat(98) : " ".repeat(298);
+            level.append('#').append(inside).append("#\n");
+        }
+        level.append("#".repeat(300)).append('\n');
+
+        Board board = Board.parse(level.toString());
+        int[] boxes = new int[board.getBoxCount()];
+        board.boxPositions(boxes);
+
+        assertFalse(MatchingHeuristic.fits(board));
+        assertThrows(IllegalArgumentException.class, () -> new MatchingHeuristic(board));
+        assertEquals(200, Search.heuristic(board).estimate(boxes, boxes.length));
+    }
+
+    @Test
+    void nearestGoalsNeverEstimateMoreThanTheMatching() {
+        for (String level : new String[]{LevelConstants.DEFAULT_LEVEL, CROWDED}) {
+            Board board = Board.parse(level);
+            int[] boxes = new int[board.getBoxCount()];
+            board.boxPositions(boxes);
+
+            assertTrue(new DistanceHeuristic(board).estimate(boxes, boxes.length) <= new MatchingHeuristic(board).estimate(boxes, boxes.length));
+        }
+
+        Board dead = Board.parse("#####\n#$ .#\n# @ #\n#####\n");
+        int[] boxes = new int[dead.getBoxCount()];
+        dead.boxPositions(boxes);
+
+        assertEquals(Heuristic.DEAD, new DistanceHeuristic(dead).estimate(boxes, boxes.length));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
+import static com.jeffreyorazulike.sokoban.solver.SolverTest.*;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Solves levels with the parallel search and checks it finds what the
+ * serial search finds</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class ParallelSearchTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    private static Solver parallel(String level, boolean deterministic) {
+        Solver solver = solver(level, Solver.Algorithm.A_STAR);
+        solver.setPool(pool);
+        solver.setDeterministic(deterministic);
+        return solver;
+    }
+
+    @Test
+    void findsTheFewestPushes() {
+        for (boolean deterministic : new boolean[]{true, false}) {
+            Solution solution = parallel(LevelConstants.DEFAULT_LEVEL, deterministic).solve();
+
+            assertReplays(LevelConstants.DEFAULT_LEVEL, solution);
+            assertEquals(DEFAULT_PUSHES, solution.getPushCount());
+        }
+    }
+
+    @Test
+    void agreesWithTheSerialSearch() {
+        int pushes = solver(SMALL, Solver.Algorithm.A_STAR).solve().getPushCount();
+
+        for (boolean deterministic : new boolean[]{true, false}) {
+            Solution solution = parallel(SMALL, deterministic).solve();
+
+            assertReplays(SMALL, solution);
+            assertEquals(pushes, solution.getPushCount());
+        }
+    }
+
+    @Test
+    void deterministicSearchIgnoresThePool() {
+        Solver solver = parallel(LevelConstants.DEFAULT_LEVEL, true);
+        String moves = solver.solve().getMoves();
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            solver.setPool(single);
+            assertEquals(moves, solver.solve().getMoves());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void tasksShareTheTableSafely() {
+        ForkJoinPool wide = new ForkJoinPool(4);
+        try {
+            // a small table makes the tasks replace each other's entries
+            for (long memory : new long[]{16 << 20, 4 << 10}) {
+                Solver solver = parallel(LevelConstants.DEFAULT_LEVEL, false);
+                solver.setPool(wide);
+                solver.setTableMemory(memory);
+
+                Solution solution = solver.solve();
+
+                assertReplays(LevelConstants.DEFAULT_LEVEL, solution);
+                assertEquals(DEFAULT_PUSHES, solution.getPushCount());
+            }
+        } finally {
+            wide.shutdown();
+        }
+    }
+
+    @Test
+    void provesDeadLevelsUnsolvable() {
+        assertEquals(Solution.Status.UNSOLVABLE, parallel(CORNERED, false).solve().getStatus());
+    }
+
+    @Test
+    void solvesASolvedLevelWithoutMoving() {
+        Solution solution = parallel("#####\n#@* #\n#####\n", false).solve();
+
+        assertEquals(Solution.Status.SOLVED, solution.getStatus());
+        assertEquals(0, solution.getMoveCount());
+    }
+}
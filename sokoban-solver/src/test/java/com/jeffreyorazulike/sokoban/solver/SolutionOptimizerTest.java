@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Shortens wasteful solutions and replays what comes out</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class SolutionOptimizerTest {
+
+    // a solution that wanders and pushes at random before it solves the level
+    private static String wasteful(Board start, long seed) {
+        Board board = new Board(start);
+        Random random = new Random(seed);
+        StringBuilder moves = new StringBuilder();
+
+        for (int i = 0; i < 60; ++i) {
+            int direction = random.nextInt(4), moved = board.move(direction);
+
+            if (moved == Board.BLOCKED)
+                continue;
+
+            // a push that can never be taken back is undone
+            if (moved == Board.PUSHED && board.isDead(board.getPlayer() + board.offset(direction))) {
+                board.undo(direction, true);
+                continue;
+            }
+
+            char move = Board.DIRECTIONS.charAt(direction);
+            moves.append(moved == Board.PUSHED ? Character.toUpperCase(move) : move);
+        }
+
+        Solver solver = new Solver(board);
+        solver.setTableMemory(16L << 20);
+        Solution rest = solver.solve();
+        assertTrue(rest.isSolved());
+
+        return moves.append(rest.getMoves()).toString();
+    }
+
+    private static int pushes(String moves) {
+        int pushes = 0;
+
+        for (int i = 0; i < moves.length(); ++i)
+            if (Character.isUpperCase(moves.charAt(i)))
+                ++pushes;
+
+        return pushes;
+    }
+
+    private static void assertSolves(Board start, String moves) {
+        Board board = new Board(start);
+
+        for (int i = 0; i < moves.length(); ++i) {
+            int moved = board.move(Board.DIRECTIONS.indexOf(Character.toLowerCase(moves.charAt(i))));
+
+            assertNotEquals(Board.BLOCKED, moved, "move " + i);
+            assertEquals(Character.isUpperCase(moves.charAt(i)), moved == Board.PUSHED, "move " + i);
+        }
+
+        assertTrue(board.isSolved());
+    }
+
+    @Test
+    void neverLengthensThePushes() {
+        Board start = Board.parse(LevelConstants.DEFAULT_LEVEL);
+        start.markDeadSquares();
+
+        for (long seed = 0; seed < 2; ++seed) {
+            String given = wasteful(start, seed);
+
+            SolutionOptimizer optimizer = new SolutionOptimizer(start);
+            optimizer.setThreads(2);
+            Solution solution = optimizer.optimize(given);
+
+            assertSolves(start, solution.getMoves());
+            assertTrue(solution.getPushCount() <= pushes(given));
+            if (solution.getPushCount() == pushes(given))
+                assertTrue(solution.getMoveCount() <= given.length());
+        }
+    }
+
+    @Test
+    void neverLengthensTheMoves() {
+        Board start = Board.parse(LevelConstants.DEFAULT_LEVEL);
+        start.markDeadSquares();
+
+        for (long seed = 0; seed < 2; ++seed) {
+            String given = wasteful(start, seed);
+
+            SolutionOptimizer optimizer = new SolutionOptimizer(start);
+            optimizer.setObjective(Solver.Objective.MOVES);
+            optimizer.setThreads(2);
+            Solution solution = optimizer.optimize(given);
+
+            assertSolves(start, solution.getMoves());
+            assertTrue(solution.getMoveCount() <= given.length());
+        }
+    }
+
+    @Test
+    void shortensTheWalksOfAnOptimalSolution() {
+        Board start = Board.parse(LevelConstants.DEFAULT_LEVEL);
+        Solution optimal = new Solver(start).solve();
+
+        // a step aside and back before the first move
+        int direction = Board.LEFT;
+        while (new Board(start).move(direction) != Board.MOVED)
+            ++direction;
+
+        String given = "" + Board.DIRECTIONS.charAt(direction) + Board.DIRECTIONS.charAt(Board.opposite(direction)) + optimal.getMoves();
+
+        Solution solution = new SolutionOptimizer(start).optimize(given);
+
+        assertSolves(start, solution.getMoves());
+        assertEquals(optimal.getPushCount(), solution.getPushCount());
+        assertTrue(solution.getMoveCount() <= optimal.getMoveCount());
+    }
+
+    @Test
+    void rejectsMovesThatDoNotSolveTheLevel() {
+        SolutionOptimizer optimizer = new SolutionOptimizer(Board.parse(LevelConstants.DEFAULT_LEVEL));
+
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize("u"));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize("x"));
+    }
+}
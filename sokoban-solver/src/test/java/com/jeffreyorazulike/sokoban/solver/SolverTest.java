@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2020 Jeffrey Orazulike
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.jeffreyorazulike.sokoban.solver;
+
+import com.jeffreyorazulike.sokoban.board.Board;
+import com.jeffreyorazulike.sokoban.board.LevelConstants;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>
+ * Solves levels with A* and IDA* and replays the solutions</p>
+ *
+ * @author Jeffrey Orazulike
+ */
+class SolverTest {
+
+    // the fewest pushes of the default level
+    static final int DEFAULT_PUSHES = 97;
+
+    static final String SMALL
+            = "#######\n"
+            + "#.@ # #\n"
+            + "#$* $ #\n"
+            + "#   $ #\n"
+            + "# ..  #\n"
+            + "#  *  #\n"
+            + "#######\n";
+
+    static final String CORNERED
+            = "#####\n"
+            + "#$ .#\n"
+            + "# @ #\n"
+            + "#####\n";
+
+    static Solver solver(String level, Solver.Algorithm algorithm) {
+        Solver solver = new Solver(Board.parse(level));
+        solver.setAlgorithm(algorithm);
+        solver.setTableMemory(16L << 20);
+        solver.setTimeLimit(60_000);
+        return solver;
+    }
+
+    // checks that the moves solve the level and push as often as the solution says
+    static void assertReplays(String level, Solution solution) {
+        assertEquals(Solution.Status.SOLVED, solution.getStatus());
+
+        Board board = Board.parse(level);
+        String moves = solution.getMoves();
+        int pushes = 0;
+
+        for (int i = 0; i < moves.length(); ++i) {
+            int moved = board.move(Board.DIRECTIONS.indexOf(Character.toLowerCase(moves.charAt(i))));
+
+            assertNotEquals(Board.BLOCKED, moved, "move " + i);
+            assertEquals(Character.isUpperCase(moves.charAt(i)), moved == Board.PUSHED, "move " + i);
+            if (moved == Board.PUSHED)
+                ++pushes;
+        }
+
+        assertTrue(board.isSolved());
+        assertEquals(solution.getPushCount(), pushes);
+        assertEquals(solution.getMoveCount(), moves.length());
+    }
+
+    @Test
+    void aStarFindsTheFewestPushes() {
+        Solution solution = solver(LevelConstants.DEFAULT_LEVEL, Solver.Algorithm.A_STAR).solve();
+
+        assertReplays(LevelConstants.DEFAULT_LEVEL, solution);
+        assertEquals(DEFAULT_PUSHES, solution.getPushCount());
+    }
+
+    @Test
+    void idaStarFindsTheFewestPushes() {
+        Solution solution = solver(LevelConstants.DEFAULT_LEVEL, Solver.Algorithm.IDA_STAR).solve();
+
+        assertReplays(LevelConstants.DEFAULT_LEVEL, solution);
+        assertEquals(DEFAULT_PUSHES, solution.getPushCount());
+    }
+
+    @Test
+    void everySearchAgreesOnTheFewestPushes() {
+        Solution aStar = solver(SMALL, Solver.Algorithm.A_STAR).solve(), idaStar = solver(SMALL, Solver.Algorithm.IDA_STAR).solve();
+
+        assertReplays(SMALL, aStar);
+        assertReplays(SMALL, idaStar);
+        assertEquals(aStar.getPushCount(), idaStar.getPushCount());
+    }
+
+    @Test
+    void fewestMovesAreNoMoreThanThoseOfTheFewestPushes() {
+        Solver solver = solver(SMALL, Solver.Algorithm.A_STAR);
+        Solution pushes = solver.solve();
+
+        solver.setObjective(Solver.Objective.MOVES);
+        Solution moves = solver.solve();
+
+        assertReplays(SMALL, moves);
+        assertTrue(moves.getMoveCount() <= pushes.getMoveCount());
+        assertTrue(moves.getPushCount() >= pushes.getPushCount());
+    }
+
+    @Test
+    void provesDeadLevelsUnsolvable() {
+        for (Solver.Algorithm algorithm : Solver.Algorithm.values())
+            assertEquals(Solution.Status.UNSOLVABLE, solver(CORNERED, algorithm).solve().getStatus());
+
+        // more boxes than goals
+        assertEquals(Solution.Status.UNSOLVABLE, solver("#####\n#@$$#\n#  .#\n#####\n", Solver.Algorithm.A_STAR).solve().getStatus());
+    }
+
+    @Test
+    void solvesASolvedLevelWithoutMoving() {
+        for (Solver.Algorithm algorithm : Solver.Algorithm.values()) {
+            Solution solution = solver("#####\n#@* #\n#####\n", algorithm).solve();
+
+            assertEquals(Solution.Status.SOLVED, solution.getStatus());
+            assertEquals(0, solution.getMoveCount());
+        }
+    }
+}